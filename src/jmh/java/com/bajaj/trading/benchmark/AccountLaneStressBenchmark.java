@@ -0,0 +1,120 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.engine.AccountLanes;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.model.Trade;
+import com.bajaj.trading.repository.PortfolioRepository;
+import com.bajaj.trading.repository.TradeRepository;
+import com.bajaj.trading.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency stress test for per-account order execution
+ * Many threads place MARKET BUYs and SELLs for a small pool of users at once, so the same
+ * account is hit from several threads. After the run every holding is checked against the
+ * trade history: quantity = bought - sold, and never negative. Any lost update or double
+ * sell fails the trial with an IllegalStateException.
+ * 
+ * The score is orders per second; compare users=1 (one hot account) with users=64 (spread
+ * across lanes) to see accounts scale across cores.
+ * 
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="AccountLaneStressBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(8)
+@Fork(1)
+public class AccountLaneStressBenchmark {
+    
+    private static final String[] SYMBOLS = {"RELIANCE", "TCS", "INFY"};
+    private static final int MAX_QUANTITY = 5;
+    
+    @Param({"1", "64"})
+    private int users;
+    
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private String[] userIds;
+    private final LongAdder rejected = new LongAdder();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        orderService = context.getBean(OrderService.class);
+        
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "stress-" + i;
+        }
+    }
+    
+    @Benchmark
+    public Order placeOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Order request = new Order();
+        request.setSymbol(SYMBOLS[random.nextInt(SYMBOLS.length)]);
+        request.setOrderType(random.nextBoolean() ? Order.OrderType.BUY : Order.OrderType.SELL);
+        request.setOrderStyle(Order.OrderStyle.MARKET);
+        request.setQuantity(1 + random.nextInt(MAX_QUANTITY));
+        try {
+            return orderService.placeOrder(userIds[random.nextInt(users)], request);
+        } catch (IllegalArgumentException e) {
+            // SELL without enough shares - expected, and exactly what must stay consistent
+            rejected.increment();
+            return null;
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void verify() {
+        try {
+            AccountLanes lanes = context.getBean(AccountLanes.class);
+            PortfolioRepository portfolioRepository = context.getBean(PortfolioRepository.class);
+            TradeRepository tradeRepository = context.getBean(TradeRepository.class);
+            
+            int checked = 0;
+            for (String userId : userIds) {
+                // Reading on the user's lane waits for everything queued before it
+                Map<String, Integer> expected = lanes.execute(userId, () -> netTradedQuantity(tradeRepository, userId));
+                Map<String, Integer> actual = new HashMap<>();
+                for (Portfolio portfolio : portfolioRepository.findByUserId(userId)) {
+                    actual.put(portfolio.getSymbol(), portfolio.getQuantity());
+                }
+                
+                for (String symbol : SYMBOLS) {
+                    int net = expected.getOrDefault(symbol, 0);
+                    int held = actual.getOrDefault(symbol, 0);
+                    if (net < 0 || held != net) {
+                        throw new IllegalStateException(String.format(
+                                "%s %s: holding %d, trades say %d", userId, symbol, held, net));
+                    }
+                    checked++;
+                }
+            }
+            System.out.printf("%nVerified %d holdings (%d SELLs rejected for insufficient shares)%n",
+                    checked, rejected.sum());
+        } finally {
+            context.close();
+        }
+    }
+    
+    private static Map<String, Integer> netTradedQuantity(TradeRepository tradeRepository, String userId) {
+        Map<String, Integer> net = new HashMap<>();
+        for (Trade trade : tradeRepository.findByUserId(userId)) {
+            int signed = trade.getTradeType() == Order.OrderType.BUY ? trade.getQuantity() : -trade.getQuantity();
+            net.merge(trade.getSymbol(), signed, Integer::sum);
+        }
+        return net;
+    }
+}
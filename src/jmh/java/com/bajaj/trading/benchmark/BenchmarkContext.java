@@ -0,0 +1,29 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.TradingApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.stream.Stream;
+
+/**
+ * Starts the application for benchmarks that call its beans directly
+ * No web server, and only warnings logged so the benchmark output stays readable.
+ */
+final class BenchmarkContext {
+    
+    private BenchmarkContext() {
+    }
+    
+    /**
+     * Run the application with extra --name=value arguments
+     */
+    static ConfigurableApplicationContext start(String... args) {
+        SpringApplication application = new SpringApplication(TradingApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return application.run(Stream.concat(
+                Stream.of("--logging.level.com.bajaj.trading=WARN", "--logging.level.root=WARN"),
+                Stream.of(args)).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,42 @@
+package com.bajaj.trading.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH launcher that always leaves a machine-readable result behind
+ * 
+ * Same arguments as org.openjdk.jmh.Main. Unless -rf / -rff are given, results are also written
+ * as JSON to target/jmh-results/jmh-<timestamp>.json, which can be archived per release and
+ * compared to spot regressions.
+ */
+public class BenchmarkMain {
+    
+    private static final Path RESULTS_DIR = Path.of("target", "jmh-results");
+    
+    public static void main(String[] args) throws Exception {
+        List<String> given = Arrays.asList(args);
+        if (given.contains("-rf") || given.contains("-rff")) {
+            Main.main(args);
+            return;
+        }
+        
+        Files.createDirectories(RESULTS_DIR);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path result = RESULTS_DIR.resolve("jmh-" + timestamp + ".json");
+        
+        String[] withResult = new String[args.length + 4];
+        withResult[0] = "-rf";
+        withResult[1] = "json";
+        withResult[2] = "-rff";
+        withResult[3] = result.toString();
+        System.arraycopy(args, 0, withResult, 4, args.length);
+        Main.main(withResult);
+    }
+}
@@ -0,0 +1,57 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.engine.CandleAggregator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candle aggregation cost per trade, and the read of a chart's worth of bars
+ * 
+ * - onTrade: one trade folded into the 1s / 1m / 5m / 1d bars of its symbol; the clock advances
+ *   10 ms per trade, so new 1s bars keep opening and old slots keep being overwritten
+ * - getCandles: the last 100 one-second bars of a busy symbol
+ * 
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="CandleAggregatorBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandleAggregatorBenchmark {
+    
+    private static final String[] SYMBOLS = {"RELIANCE", "TCS", "INFY", "HDFCBANK", "ICICIBANK", "WIPRO"};
+    
+    private CandleAggregator aggregator;
+    private long[] prices;
+    private long clock;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        aggregator = new CandleAggregator(1440);
+        prices = new long[64];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 240000 + i;   // ₹2400.00 + i paise
+        }
+        clock = System.currentTimeMillis();
+        for (int i = 0; i < 100_000; i++) {
+            onTrade();
+        }
+    }
+    
+    @Benchmark
+    public void onTrade() {
+        next++;
+        clock += 10;
+        aggregator.onTrade(SYMBOLS[next % SYMBOLS.length], prices[next & 63], 1 + (next & 7), clock);
+    }
+    
+    @Benchmark
+    public List<CandleAggregator.Candle> getCandles() {
+        return aggregator.getCandles("TCS", CandleAggregator.Interval.S1, 100);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.cache.ClientOrderIdCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client order id dedupe cost with the cache at its default size (1M ids)
+ * 
+ * - getHit: a retry of a cached id
+ * - getMiss: a new id (the common case: every fresh order pays this lookup)
+ * - put: one accepted order remembered; the cache is full, so each slice rotation drops the oldest
+ *   slice. The clock advances 100 ms per put, so slices keep expiring during the run.
+ * 
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="ClientOrderIdCacheBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ClientOrderIdCacheBenchmark {
+    
+    private static final int ENTRIES = 1_000_000;
+    private static final int USERS = 1_000;
+    
+    private ClientOrderIdCache cache;
+    private String[] userIds;
+    private String[] clientIds;
+    private long clock;
+    private long nextOrderId;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new ClientOrderIdCache(1440, ENTRIES);
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = String.format("u-%04d", i);
+        }
+        clientIds = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            clientIds[i] = "gw-" + i;
+        }
+        clock = System.currentTimeMillis();
+        for (int i = 0; i < ENTRIES; i++) {
+            cache.put(userIds[i % USERS], clientIds[i], ++nextOrderId, clock);
+        }
+    }
+    
+    @Benchmark
+    public Long getHit() {
+        int i = (next++ & 0x7FFFFFFF) % ENTRIES;
+        return cache.get(userIds[i % USERS], clientIds[i]);
+    }
+    
+    @Benchmark
+    public Long getMiss() {
+        int i = (next++ & 0x7FFFFFFF) % ENTRIES;
+        return cache.get(userIds[(i + 1) % USERS], clientIds[i]);
+    }
+    
+    @Benchmark
+    public void put() {
+        int i = (next++ & 0x7FFFFFFF) % ENTRIES;
+        clock += 100;
+        cache.put(userIds[(i + 7) % USERS], clientIds[i], ++nextOrderId, clock);
+    }
+}
@@ -0,0 +1,324 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.TradingApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-loop HTTP load generator for the whole application
+ * 
+ * Starts the application in this JVM (or targets a running one with url=...) and sends a fixed
+ * request rate, mixing order placement, portfolio reads and trade queries. Requests are
+ * scheduled on a timetable and never wait for earlier responses, so a slow server does not
+ * slow the load down. Every request is sent from its own virtual thread.
+ * 
+ * Latency is measured from the request's scheduled send time, not from the moment it was
+ * actually sent. When the server (or the generator) falls behind, the queueing delay counts,
+ * which corrects coordinated omission. The uncorrected "service time" is printed next to it.
+ * 
+ * Failed requests (status >= 300, timeouts) are kept out of the success percentiles but timed
+ * the same way, in their own histogram, so a server that fails slowly does not look fast.
+ * 
+ * Reports p50 / p99 / p99.9 / max per endpoint and writes HdrHistogram percentile files
+ * (.hgrm, plottable with HdrHistogram's plotter; -errors.hgrm for failures) to target/load-results/.
+ * 
+ * Not a JMH benchmark; it has its own main():
+ *   mvn -Pbenchmark compile exec:exec -Dbenchmark.main=com.bajaj.trading.benchmark.HttpLoadGenerator \
+ *       -Djmh.args="rate=500 duration=30 warmup=10 mix=order:20,portfolio:50,trades:30"
+ * Arguments (all optional): rate = requests/s, duration / warmup = seconds,
+ * mix = endpoint:weight list, url = base URL of an already running application,
+ * users = spread the requests over this many accounts (default 100, tokens from /api/v1/auth/token;
+ * 0 sends no token, so every order queues on the default user's lane), adminKey = X-Admin-Key
+ * for issuing them.
+ */
+public class HttpLoadGenerator {
+    
+    private static final String[] SYMBOLS = {"RELIANCE", "TCS", "INFY", "HDFCBANK", "ICICIBANK", "WIPRO"};
+    private static final int DEFAULT_USERS = 100;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Path RESULTS_DIR = Path.of("target", "load-results");
+    
+    // Highest trackable latency; anything slower is recorded as this value
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    
+    /**
+     * Request types in the mix
+     */
+    enum Endpoint {
+        ORDER("order"),
+        PORTFOLIO("portfolio"),
+        TRADES("trades");
+        
+        private final String key;
+        
+        Endpoint(String key) {
+            this.key = key;
+        }
+        
+        HttpRequest request(String baseUrl, String[] tokens, SplittableRandom random) {
+            HttpRequest.Builder builder = switch (this) {
+                case ORDER -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/orders"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                "{\"symbol\":\"%s\",\"orderType\":\"BUY\",\"orderStyle\":\"MARKET\",\"quantity\":%d}",
+                                SYMBOLS[random.nextInt(SYMBOLS.length)], 1 + random.nextInt(10))));
+                case PORTFOLIO -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/portfolio"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .GET();
+                case TRADES -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/trades?limit=50"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .GET();
+            };
+            if (tokens.length > 0) {
+                builder.header("Authorization", "Bearer " + tokens[random.nextInt(tokens.length)]);
+            }
+            return builder.build();
+        }
+        
+        static Endpoint of(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(pair[0], pair[1]);
+        }
+        int rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Endpoint[] schedule = schedule(options.getOrDefault("mix", "order:20,portfolio:50,trades:30"));
+        int users = Integer.parseInt(options.getOrDefault("users", String.valueOf(DEFAULT_USERS)));
+        
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("url");
+        if (baseUrl == null) {
+            context = SpringApplication.run(TradingApplication.class,
+                    "--server.port=0",
+                    // Every order is a BUY: lift the risk limits so the run measures latency, not rejections
+                    "--trading.risk.buying-power=1000000000000",
+                    "--trading.risk.max-position=1000000000",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.bajaj.trading=WARN");
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        
+        try {
+            String[] tokens = issueTokens(baseUrl, users, options.get("adminKey"));
+            System.out.printf("Warming up for %d s at %d req/s%n", warmup.toSeconds(), rate);
+            run(baseUrl, tokens, rate, warmup, schedule);
+            System.out.printf("Measuring for %d s at %d req/s%n", duration.toSeconds(), rate);
+            Map<Endpoint, Result> results = run(baseUrl, tokens, rate, duration, schedule);
+            report(results, rate, duration);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+    
+    /**
+     * Expand "order:20,portfolio:50,trades:30" into a table with one slot per weight unit,
+     * so a uniform draw from it follows the mix
+     */
+    private static Endpoint[] schedule(String mix) {
+        List<Endpoint> slots = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":", 2);
+            Endpoint endpoint = Endpoint.of(pair[0].trim());
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                slots.add(endpoint);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Empty mix");
+        }
+        return slots.toArray(new Endpoint[0]);
+    }
+    
+    /**
+     * Tokens of the accounts load-1 .. load-N (none when users is 0)
+     */
+    private static String[] issueTokens(String baseUrl, int users, String adminKey) throws Exception {
+        String[] tokens = new String[users];
+        if (users == 0) {
+            return tokens;
+        }
+        Pattern tokenField = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            for (int i = 0; i < users; i++) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/token"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":\"load-" + (i + 1) + "\"}"));
+                if (adminKey != null) {
+                    request.header("X-Admin-Key", adminKey);
+                }
+                HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                Matcher matcher = tokenField.matcher(response.body());
+                if (response.statusCode() != 200 || !matcher.find()) {
+                    throw new IllegalStateException("Token request failed (" + response.statusCode() + "): "
+                            + response.body());
+                }
+                tokens[i] = matcher.group(1);
+            }
+        }
+        System.out.printf("Issued tokens for %d users%n", users);
+        return tokens;
+    }
+    
+    private static Map<Endpoint, Result> run(String baseUrl, String[] tokens, int rate, Duration duration,
+                                             Endpoint[] schedule) {
+        Map<Endpoint, Result> results = new HashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            results.put(endpoint, new Result());
+        }
+        
+        SplittableRandom random = new SplittableRandom(42);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = duration.toSeconds() * rate;
+        long start = System.nanoTime();
+        
+        // Closed in reverse order: wait for every request to finish, then close the connections
+        try (HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(REQUEST_TIMEOUT)
+                     .build();
+             ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                // The timetable is fixed up front; a late dispatcher never pushes it back
+                long intended = start + i * intervalNanos;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                
+                Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+                HttpRequest request = endpoint.request(baseUrl, tokens, random);
+                Result result = results.get(endpoint);
+                senders.execute(() -> result.send(http, request, intended));
+            }
+        }
+        return results;
+    }
+    
+    private static void report(Map<Endpoint, Result> results, int rate, Duration duration) throws IOException {
+        Files.createDirectories(RESULTS_DIR);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        
+        System.out.println();
+        System.out.printf("Target rate %d req/s for %d s; latency in ms from the scheduled send time%n",
+                rate, duration.toSeconds());
+        System.out.printf("%-10s %8s %7s %9s %9s %9s %9s %14s %9s %11s%n",
+                "endpoint", "ok", "errors", "p50", "p99", "p99.9", "max", "p99 service", "timeouts", "error p99");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Result result = results.get(endpoint);
+            Histogram latency = result.latency.getIntervalHistogram();
+            Histogram service = result.service.getIntervalHistogram();
+            Histogram errorLatency = result.errorLatency.getIntervalHistogram();
+            if (latency.getTotalCount() == 0 && errorLatency.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %8d %7d %9.2f %9.2f %9.2f %9.2f %14.2f %9d %11.2f%n",
+                    endpoint.key, latency.getTotalCount(), result.errors.sum(),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()),
+                    millis(service.getValueAtPercentile(99)), result.timeouts.sum(),
+                    millis(errorLatency.getValueAtPercentile(99)));
+            
+            writeDistribution(latency, "load-" + timestamp + "-" + endpoint.key + ".hgrm");
+            if (errorLatency.getTotalCount() > 0) {
+                writeDistribution(errorLatency, "load-" + timestamp + "-" + endpoint.key + "-errors.hgrm");
+            }
+        }
+        System.out.println("Percentile distributions written to " + RESULTS_DIR);
+    }
+    
+    private static void writeDistribution(Histogram histogram, String name) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(RESULTS_DIR.resolve(name)))) {
+            histogram.outputPercentileDistribution(out, 1_000_000.0);  // in milliseconds
+        }
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+    
+    /**
+     * Latencies and errors of one endpoint, recorded concurrently by the sending threads
+     */
+    private static final class Result {
+        
+        // Response time from the scheduled send time (coordinated omission corrected)
+        private final Recorder latency = new Recorder(MAX_LATENCY_NANOS, 3);
+        // Response time from the actual send time (what a closed-loop client would report)
+        private final Recorder service = new Recorder(MAX_LATENCY_NANOS, 3);
+        // Time to the failure (status >= 300, timeout, connection error), from the scheduled send time
+        private final Recorder errorLatency = new Recorder(MAX_LATENCY_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        
+        void send(HttpClient http, HttpRequest request, long intended) {
+            long sent = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 300;
+            } catch (HttpTimeoutException e) {
+                timeouts.increment();
+                ok = false;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long done = System.nanoTime();
+            if (!ok) {
+                // Failures are timed too, or a server that fails slowly (timeouts) would look fast
+                errors.increment();
+                errorLatency.recordValue(Math.min(done - intended, MAX_LATENCY_NANOS));
+                return;
+            }
+            latency.recordValue(Math.min(done - intended, MAX_LATENCY_NANOS));
+            service.recordValue(Math.min(done - sent, MAX_LATENCY_NANOS));
+        }
+    }
+}
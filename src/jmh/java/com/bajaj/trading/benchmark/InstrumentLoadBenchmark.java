@@ -0,0 +1,126 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.TradingApplication;
+import com.bajaj.trading.marketdata.InstrumentMasterLoader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instrument master loading: startup-to-ready time and a delta reload
+ * 
+ * - startupToReady: boots the full web application (random port) against a generated master file,
+ *   timed until SpringApplication.run returns, i.e. the instruments are in and requests are served
+ * - reload: re-reads the same file into a running application; 1% of the rows changed exchange,
+ *   so it measures parse + diff + one small batch of updates
+ * 
+ * Both are single shot: each invocation is a cold boot or one reload, as in production.
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="InstrumentLoadBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class InstrumentLoadBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class Startup {
+        
+        @Param({"10", "100000"})
+        public int instruments;
+        
+        Path file;
+        ConfigurableApplicationContext context;
+        
+        @Setup(Level.Trial)
+        public void writeFile() throws IOException {
+            file = writeMaster(instruments, "NSE");
+        }
+        
+        @TearDown(Level.Invocation)
+        public void stop() {
+            if (context != null) {
+                context.close();
+            }
+        }
+        
+        @TearDown(Level.Trial)
+        public void deleteFile() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Running {
+        
+        @Param({"100000"})
+        public int instruments;
+        
+        Path file;
+        ConfigurableApplicationContext context;
+        InstrumentMasterLoader loader;
+        private boolean changed;
+        
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            file = writeMaster(instruments, "NSE");
+            context = run(file);
+            loader = context.getBean(InstrumentMasterLoader.class);
+        }
+        
+        // Every reload sees 1% of the instruments move exchange (NSE <-> BSE)
+        @Setup(Level.Invocation)
+        public void changeFile() throws IOException {
+            changed = !changed;
+            writeMaster(file, instruments, changed ? "BSE" : "NSE");
+        }
+        
+        @TearDown(Level.Trial)
+        public void stop() throws IOException {
+            context.close();
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Benchmark
+    public ConfigurableApplicationContext startupToReady(Startup state) {
+        state.context = run(state.file);
+        return state.context;
+    }
+    
+    @Benchmark
+    public InstrumentMasterLoader.LoadResult reload(Running state) {
+        return state.loader.reload();
+    }
+    
+    private static ConfigurableApplicationContext run(Path file) {
+        return new SpringApplication(TradingApplication.class).run(
+                "--server.port=0",
+                "--trading.instruments.file=" + file,
+                "--logging.level.com.bajaj.trading=WARN",
+                "--logging.level.root=WARN");
+    }
+    
+    private static Path writeMaster(int instruments, String exchange) throws IOException {
+        Path file = Files.createTempFile("instruments", ".csv");
+        writeMaster(file, instruments, exchange);
+        return file;
+    }
+    
+    // Every 100th instrument is listed on the given exchange, the rest on NSE
+    private static void writeMaster(Path file, int instruments, String exchange) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("SYMBOL,EXCHANGE,TYPE,PRICE\n");
+            for (int i = 0; i < instruments; i++) {
+                out.write("SYM" + i + "," + (i % 100 == 0 ? exchange : "NSE") + ",EQUITY," + (100 + i % 9000) + ".25\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.marketdata.InstrumentSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instrument search index lookups with 100k instruments (as served by GET /api/v1/instruments/search)
+ * 
+ * - prefixOneLetter: "S", the first keystroke - many matches, the scan stops at the limit
+ * - prefixNarrow: "SYM0421", a few keystrokes in - ~10 matches
+ * - filteredRare: no prefix, exchange=BSE (1% of the instruments) - scans ~2k rows for 20 hits
+ * - filteredWorstCase: no prefix, type=ETF, held by the very last symbol only - a scan of every row
+ * 
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="InstrumentSearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentSearchBenchmark {
+    
+    private static final int INSTRUMENTS = 100_000;
+    private static final int LIMIT = 20;
+    
+    private InstrumentSearchIndex index;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<InstrumentSearchIndex.Entry> entries = new ArrayList<>(INSTRUMENTS);
+        for (int i = 0; i < INSTRUMENTS - 1; i++) {
+            entries.add(new InstrumentSearchIndex.Entry(
+                    String.format("SYM%06d", i), i % 100 == 0 ? "BSE" : "NSE", "EQUITY"));
+        }
+        entries.add(new InstrumentSearchIndex.Entry("ZZZLAST", "NSE", "ETF"));
+        index = new InstrumentSearchIndex();
+        index.rebuild(entries);
+    }
+    
+    @Benchmark
+    public List<InstrumentSearchIndex.Entry> prefixOneLetter() {
+        return index.search("S", null, null, LIMIT);
+    }
+    
+    @Benchmark
+    public List<InstrumentSearchIndex.Entry> prefixNarrow() {
+        return index.search("sym0421", null, null, LIMIT);
+    }
+    
+    @Benchmark
+    public List<InstrumentSearchIndex.Entry> filteredRare() {
+        return index.search(null, "BSE", null, LIMIT);
+    }
+    
+    @Benchmark
+    public List<InstrumentSearchIndex.Entry> filteredWorstCase() {
+        return index.search("", null, "ETF", LIMIT);
+    }
+}
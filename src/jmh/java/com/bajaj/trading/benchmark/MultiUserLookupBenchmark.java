@@ -0,0 +1,161 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.model.CursorPage;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.model.Trade;
+import com.bajaj.trading.repository.PortfolioRepository;
+import com.bajaj.trading.service.OrderService;
+import com.bajaj.trading.service.TradeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user lookups with 100k accounts in the database, with and without the user-leading indexes
+ * 
+ * Every user has 2 holdings and 3 orders, each with its trade (200k / 300k / 300k rows), inserted
+ * with JDBC batches. Each call picks a random user:
+ * - holdingBySymbol: portfolio row of one symbol (what order validation and fills load)
+ * - holdings: all of the user's portfolio rows (basket preload)
+ * - ordersPage / tradesPage: first page of the user's history
+ * 
+ * indexed=false drops every secondary index and unique constraint first, so each lookup scans
+ * the table - the cost the indexes remove.
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="MultiUserLookupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MultiUserLookupBenchmark {
+    
+    private static final int USERS = 100_000;
+    private static final String[] SYMBOLS = {"RELIANCE", "TCS", "INFY", "HDFCBANK", "ICICIBANK", "WIPRO"};
+    private static final int HOLDINGS_PER_USER = 2;
+    private static final int ORDERS_PER_USER = 3;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] TABLES = {"PORTFOLIO", "ORDERS", "TRADES"};
+    
+    @Param({"true", "false"})
+    public boolean indexed;
+    
+    private ConfigurableApplicationContext context;
+    private PortfolioRepository portfolioRepository;
+    private OrderService orderService;
+    private TradeService tradeService;
+    private String[] userIds;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--spring.jpa.show-sql=false");
+        portfolioRepository = context.getBean(PortfolioRepository.class);
+        orderService = context.getBean(OrderService.class);
+        tradeService = context.getBean(TradeService.class);
+        
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = String.format("u-%06d", i);
+        }
+        seed(jdbc);
+        if (!indexed) {
+            dropIndexes(jdbc);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Optional<Portfolio> holdingBySymbol() {
+        int user = ThreadLocalRandom.current().nextInt(USERS);
+        return portfolioRepository.findByUserIdAndSymbol(userIds[user], SYMBOLS[user % SYMBOLS.length]);
+    }
+    
+    @Benchmark
+    public List<Portfolio> holdings() {
+        return portfolioRepository.findByUserId(randomUser());
+    }
+    
+    @Benchmark
+    public CursorPage<Order> ordersPage() {
+        return orderService.getOrders(randomUser(), null, PAGE_SIZE, null, null, null, null);
+    }
+    
+    @Benchmark
+    public CursorPage<Trade> tradesPage() {
+        return tradeService.getTrades(randomUser(), null, PAGE_SIZE, null, null, null);
+    }
+    
+    private String randomUser() {
+        return userIds[ThreadLocalRandom.current().nextInt(USERS)];
+    }
+    
+    /**
+     * Ids start well above anything the application's sequences hand out during startup
+     */
+    private void seed(JdbcTemplate jdbc) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        BigDecimal price = new BigDecimal("100.00");
+        long baseId = 1_000_000;
+        
+        List<Object[]> holdings = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> orders = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> trades = new ArrayList<>(BATCH_SIZE);
+        for (int user = 0; user < USERS; user++) {
+            for (int h = 0; h < HOLDINGS_PER_USER; h++) {
+                holdings.add(new Object[] {baseId + (long) user * HOLDINGS_PER_USER + h, userIds[user],
+                        SYMBOLS[(user + h) % SYMBOLS.length], 10, price, price.multiply(BigDecimal.TEN)});
+            }
+            for (int o = 0; o < ORDERS_PER_USER; o++) {
+                long id = baseId + (long) user * ORDERS_PER_USER + o;
+                String symbol = SYMBOLS[(user + o) % SYMBOLS.length];
+                orders.add(new Object[] {id, userIds[user], symbol, "BUY", "MARKET", 1, 1, price, "EXECUTED", now, now});
+                trades.add(new Object[] {id, id, userIds[user], symbol, "BUY", 1, price, price, now});
+            }
+            if (orders.size() >= BATCH_SIZE || user == USERS - 1) {
+                jdbc.batchUpdate("INSERT INTO portfolio (id, user_id, symbol, quantity, average_price, current_value) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", holdings);
+                jdbc.batchUpdate("INSERT INTO orders (order_id, user_id, symbol, order_type, order_style, quantity, "
+                        + "filled_quantity, price, status, created_at, executed_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", orders);
+                jdbc.batchUpdate("INSERT INTO trades (trade_id, order_id, user_id, symbol, trade_type, quantity, "
+                        + "executed_price, total_value, executed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", trades);
+                holdings.clear();
+                orders.clear();
+                trades.clear();
+            }
+        }
+    }
+    
+    /**
+     * Unique constraints own their index, so they go first; primary keys stay
+     */
+    private static void dropIndexes(JdbcTemplate jdbc) {
+        for (String table : TABLES) {
+            for (String constraint : jdbc.queryForList("SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                    + "WHERE TABLE_NAME = ? AND CONSTRAINT_TYPE = 'UNIQUE'", String.class, table)) {
+                jdbc.execute("ALTER TABLE " + table + " DROP CONSTRAINT " + constraint);
+            }
+            for (String index : jdbc.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES "
+                    + "WHERE TABLE_NAME = ? AND INDEX_TYPE_NAME <> 'PRIMARY KEY'", String.class, table)) {
+                jdbc.execute("DROP INDEX IF EXISTS " + index);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.engine.BookOrder;
+import com.bajaj.trading.engine.Fill;
+import com.bajaj.trading.engine.MatchingEngine;
+import com.bajaj.trading.engine.OrderBook;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Price;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order book matching throughput on a single core
+ * One benchmark operation = one match (fill), so the ops/s score is matches per second.
+ * 
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="OrderBookBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBookBenchmark {
+    
+    private static final int ORDERS_PER_LEVEL = 10;
+    private static final int QUANTITY = 100;
+    
+    @Param({"10", "100", "1000"})
+    private int priceLevels;
+    
+    private OrderBook book;
+    private MatchingEngine engine;
+    private BigDecimal[] prices;
+    private long[] priceUnits;
+    private final List<Fill> fills = new ArrayList<>();
+    private long nextOrderId;
+    private int cursor;
+    
+    @Setup(Level.Iteration)
+    public void setUp() {
+        book = new OrderBook("BENCH");
+        engine = new MatchingEngine();
+        prices = new BigDecimal[priceLevels];
+        priceUnits = new long[priceLevels];
+        for (int i = 0; i < priceLevels; i++) {
+            prices[i] = new BigDecimal("2400.00").add(new BigDecimal("0.05").multiply(BigDecimal.valueOf(i)));
+            priceUnits[i] = Price.toUnits(prices[i]);
+            for (int j = 0; j < ORDERS_PER_LEVEL; j++) {
+                book.rest(new BookOrder(nextOrderId++, "maker", Order.OrderType.SELL, priceUnits[i], QUANTITY));
+                engine.submit(order(Order.OrderType.SELL, prices[i], QUANTITY));
+            }
+        }
+    }
+    
+    /**
+     * A BUY that takes exactly one resting SELL; the book is replenished so its depth stays constant
+     */
+    @Benchmark
+    public int matchOne() {
+        long price = priceUnits[nextLevel()];
+        fills.clear();
+        book.rest(new BookOrder(nextOrderId++, "maker", Order.OrderType.SELL, price, QUANTITY));
+        book.match(new BookOrder(nextOrderId++, "taker", Order.OrderType.BUY, price, QUANTITY), fills);
+        return fills.size();
+    }
+    
+    /**
+     * A BUY that partially fills three resting SELLs (three matches per operation)
+     */
+    @Benchmark
+    @OperationsPerInvocation(3)
+    public int sweepWithPartialFills() {
+        long price = priceUnits[nextLevel()];
+        fills.clear();
+        for (int i = 0; i < 3; i++) {
+            book.rest(new BookOrder(nextOrderId++, "maker", Order.OrderType.SELL, price, QUANTITY));
+        }
+        book.match(new BookOrder(nextOrderId++, "taker", Order.OrderType.BUY, price, 3 * QUANTITY), fills);
+        return fills.size();
+    }
+    
+    /**
+     * Same as matchOne but through MatchingEngine.submit (symbol lookup + book lock)
+     */
+    @Benchmark
+    public int matchOneViaEngine() {
+        BigDecimal price = prices[nextLevel()];
+        engine.submit(order(Order.OrderType.SELL, price, QUANTITY));
+        return engine.submit(order(Order.OrderType.BUY, price, QUANTITY)).size();
+    }
+    
+    private int nextLevel() {
+        int level = cursor;
+        cursor = (cursor + 1) % priceLevels;
+        return level;
+    }
+    
+    private Order order(Order.OrderType side, BigDecimal price, int quantity) {
+        Order order = new Order();
+        order.setOrderId(nextOrderId++);
+        order.setSymbol("BENCH");
+        order.setOrderType(side);
+        order.setOrderStyle(Order.OrderStyle.LIMIT);
+        order.setQuantity(quantity);
+        order.setPrice(price);
+        order.setUserId(side == Order.OrderType.BUY ? "taker" : "maker");
+        return order;
+    }
+}
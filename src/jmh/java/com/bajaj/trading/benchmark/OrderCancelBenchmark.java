@@ -0,0 +1,49 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.engine.BookOrder;
+import com.bajaj.trading.engine.OrderBook;
+import com.bajaj.trading.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of cancelling a resting order as the book grows
+ * 
+ * The book holds openOrders resting BUYs spread over 100 price levels. Each operation takes a
+ * random one out (by order id, from the middle of its level) and rests it again at the back of
+ * the level, so the book stays the same size. The score should stay flat across openOrders.
+ * 
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="OrderCancelBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OrderCancelBenchmark {
+    
+    private static final int PRICE_LEVELS = 100;
+    
+    @Param({"1000", "100000", "1000000"})
+    private int openOrders;
+    
+    private OrderBook book;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        book = new OrderBook("BENCH");
+        for (int i = 0; i < openOrders; i++) {
+            book.rest(new BookOrder(i, "maker", Order.OrderType.BUY, 240_000 + i % PRICE_LEVELS, 100));
+        }
+    }
+    
+    @Benchmark
+    public BookOrder cancelAndRest() {
+        BookOrder cancelled = book.remove(ThreadLocalRandom.current().nextInt(openOrders));
+        book.rest(cancelled);
+        return cancelled;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.placeOrder end to end: validation, lane hand-off, transaction, inserts
+ * 
+ * - placeMarketOrder: MARKET BUY, executed at once (order + trade + holding writes)
+ * - placeLimitOrder: LIMIT BUY below the market (inside the risk price band), so it is saved and rests in the book
+ * 
+ * Orders rotate over a few users so they spread across account lanes, as in production.
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="OrderServiceBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+    
+    private static final String SYMBOL = "INFY";
+    private static final int USERS = 16;
+    private static final BigDecimal RESTING_PRICE = new BigDecimal("1250.00");
+    
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private String[] userIds;
+    private int nextUser;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        orderService = context.getBean(OrderService.class);
+        
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = "bench-" + i;
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Order placeMarketOrder() {
+        return orderService.placeOrder(nextUser(), order(Order.OrderStyle.MARKET, null));
+    }
+    
+    @Benchmark
+    public Order placeLimitOrder() {
+        return orderService.placeOrder(nextUser(), order(Order.OrderStyle.LIMIT, RESTING_PRICE));
+    }
+    
+    private String nextUser() {
+        nextUser = (nextUser + 1) % USERS;
+        return userIds[nextUser];
+    }
+    
+    private static Order order(Order.OrderStyle style, BigDecimal price) {
+        Order request = new Order();
+        request.setSymbol(SYMBOL);
+        request.setOrderType(Order.OrderType.BUY);
+        request.setOrderStyle(style);
+        request.setQuantity(1);
+        request.setPrice(price);
+        return request;
+    }
+}
@@ -0,0 +1,59 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.model.Price;
+import com.bajaj.trading.model.Trade;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-fill model work: Portfolio.addShares / removeShares and building the Trade record
+ * Run with -prof gc to see the allocations per fill as well:
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="PortfolioBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioBenchmark {
+    
+    // Large enough that a whole iteration of removeShares never runs out of shares
+    private static final int START_QUANTITY = 1_000_000_000;
+    
+    private BigDecimal averagePrice;
+    private long fillPrice;
+    private int fillQuantity;
+    private Portfolio buying;
+    private Portfolio selling;
+    
+    @Setup(Level.Iteration)
+    public void setUp() {
+        averagePrice = new BigDecimal("2450.50");
+        fillPrice = Price.toUnits(new BigDecimal("2461.35"));
+        fillQuantity = 25;
+        buying = new Portfolio("user123", "RELIANCE", 137, averagePrice);
+        selling = new Portfolio("user123", "RELIANCE", START_QUANTITY, averagePrice);
+    }
+    
+    @Benchmark
+    public Portfolio addShares() {
+        buying.addShares(fillQuantity, fillPrice);
+        return buying;
+    }
+    
+    @Benchmark
+    public Portfolio removeShares() {
+        selling.removeShares(fillQuantity);
+        return selling;
+    }
+    
+    @Benchmark
+    public Trade newTrade() {
+        return new Trade(42L, "RELIANCE", Order.OrderType.BUY, fillQuantity, fillPrice, "user123");
+    }
+}
@@ -0,0 +1,84 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.engine.PortfolioValuationEngine;
+import com.bajaj.trading.event.PriceChangedEvent;
+import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.service.PortfolioService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PortfolioService.getPortfolio for a user with 10 / 100 / 1000 holdings
+ * 
+ * - getPortfolio: nothing changed since the last read, the snapshot is returned as is
+ * - getPortfolioAfterTick: one held symbol ticks first, so the read rebuilds the snapshot
+ *   (the cost that grows with the number of holdings)
+ * 
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="PortfolioServiceBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioServiceBenchmark {
+    
+    // Holdings are added straight to the valuation engine for this user
+    private static final String USER_ID = "user123";
+    
+    @Param({"10", "100", "1000"})
+    private int holdings;
+    
+    private ConfigurableApplicationContext context;
+    private PortfolioService portfolioService;
+    private PortfolioValuationEngine valuationEngine;
+    private PriceChangedEvent[] ticks;
+    private int nextTick;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        portfolioService = context.getBean(PortfolioService.class);
+        valuationEngine = context.getBean(PortfolioValuationEngine.class);
+        
+        // Straight into the valuation engine: the read path never touches the portfolio table
+        for (int i = 0; i < holdings; i++) {
+            valuationEngine.onHoldingChanged((long) i + 1, USER_ID, symbol(i), 10, new BigDecimal("100.00"));
+        }
+        
+        // Alternate between two prices so every tick is a real change
+        ticks = new PriceChangedEvent[] {
+            new PriceChangedEvent(symbol(0), new BigDecimal("101.00")),
+            new PriceChangedEvent(symbol(0), new BigDecimal("102.00"))
+        };
+        if (portfolioService.getPortfolio(USER_ID).size() != holdings) {
+            throw new IllegalStateException("Expected " + holdings + " holdings");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<Portfolio> getPortfolio() {
+        return portfolioService.getPortfolio(USER_ID);
+    }
+    
+    @Benchmark
+    public List<Portfolio> getPortfolioAfterTick() {
+        nextTick ^= 1;
+        valuationEngine.onPriceChanged(ticks[nextTick]);
+        return portfolioService.getPortfolio(USER_ID);
+    }
+    
+    private static String symbol(int i) {
+        return String.format("SYM%04d", i);
+    }
+}
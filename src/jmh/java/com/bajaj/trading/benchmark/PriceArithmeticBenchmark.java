@@ -0,0 +1,103 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.model.Price;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-point Price arithmetic vs the BigDecimal code it replaced on the fill path
+ * Run with -prof gc to see the allocation difference as well:
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="PriceArithmeticBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceArithmeticBenchmark {
+    
+    private BigDecimal averagePrice;
+    private BigDecimal buyPrice;
+    private long averageUnits;
+    private long buyUnits;
+    private int quantity;
+    private int buyQuantity;
+    
+    @Setup
+    public void setUp() {
+        averagePrice = new BigDecimal("2450.50");
+        buyPrice = new BigDecimal("2461.35");
+        averageUnits = Price.toUnits(averagePrice);
+        buyUnits = Price.toUnits(buyPrice);
+        quantity = 137;
+        buyQuantity = 25;
+    }
+    
+    // ========== Portfolio.addShares: weighted average price ==========
+    
+    @Benchmark
+    public BigDecimal weightedAverageBigDecimal() {
+        BigDecimal oldTotalValue = averagePrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal newTotalValue = buyPrice.multiply(BigDecimal.valueOf(buyQuantity));
+        return oldTotalValue.add(newTotalValue)
+                .divide(BigDecimal.valueOf(quantity + buyQuantity), 2, RoundingMode.HALF_UP);
+    }
+    
+    @Benchmark
+    public long weightedAverageFixedPoint() {
+        return Price.weightedAverage(averageUnits, quantity, buyUnits, buyQuantity);
+    }
+    
+    /**
+     * Fixed-point math on BigDecimal inputs, converted back at the entity boundary
+     * (Portfolio.addShares gets the fill price in units and converts only the stored average)
+     */
+    @Benchmark
+    public BigDecimal weightedAverageFixedPointAtBoundary() {
+        return Price.toBigDecimal(Price.weightedAverage(
+                Price.toUnits(averagePrice), quantity, Price.toUnits(buyPrice), buyQuantity));
+    }
+    
+    // ========== Trade / Portfolio.updateCurrentValue: price × quantity ==========
+    
+    @Benchmark
+    public BigDecimal notionalBigDecimal() {
+        return buyPrice.multiply(BigDecimal.valueOf(buyQuantity));
+    }
+    
+    @Benchmark
+    public long notionalFixedPoint() {
+        return Price.multiply(buyUnits, buyQuantity);
+    }
+    
+    // ========== Mark to market: revalue 100 holdings on a tick ==========
+    
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void markToMarketBigDecimal(Blackhole bh) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < 100; i++) {
+            BigDecimal oldValue = averagePrice.multiply(BigDecimal.valueOf(quantity + i));
+            BigDecimal newValue = buyPrice.multiply(BigDecimal.valueOf(quantity + i));
+            total = total.add(newValue.subtract(oldValue));
+        }
+        bh.consume(total);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void markToMarketFixedPoint(Blackhole bh) {
+        long total = 0;
+        for (int i = 0; i < 100; i++) {
+            long oldValue = Price.multiply(averageUnits, quantity + i);
+            long newValue = Price.multiply(buyUnits, quantity + i);
+            total = Math.addExact(total, newValue - oldValue);
+        }
+        bh.consume(total);
+    }
+}
@@ -0,0 +1,70 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.engine.RiskEngine;
+import com.bajaj.trading.model.Order;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the pre-trade risk stage that runs in front of every order
+ * 
+ * - reserveAndCancel: price band, notional cap, buying power and position limit checks for a
+ *   LIMIT BUY, the CAS reservation, and giving it back (what a rejected request costs)
+ * - reserveSell: the stateless checks only (SELLs reserve nothing)
+ * 
+ * @Threads can be raised to see the CAS loops under contention on one account.
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="RiskEngineBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiskEngineBenchmark {
+    
+    private static final String USER_ID = "risk-bench";
+    
+    private ConfigurableApplicationContext context;
+    private RiskEngine riskEngine;
+    private Order buy;
+    private Order sell;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        riskEngine = context.getBean(RiskEngine.class);
+        buy = order(Order.OrderType.BUY);
+        sell = order(Order.OrderType.SELL);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public RiskEngine.Reservation reserveAndCancel() {
+        RiskEngine.Reservation reservation = riskEngine.reserve(USER_ID, buy);
+        riskEngine.cancel(reservation);
+        return reservation;
+    }
+    
+    @Benchmark
+    public RiskEngine.Reservation reserveSell() {
+        return riskEngine.reserve(USER_ID, sell);
+    }
+    
+    private static Order order(Order.OrderType type) {
+        Order request = new Order();
+        request.setSymbol("INFY");
+        request.setOrderType(type);
+        request.setOrderStyle(Order.OrderStyle.LIMIT);
+        request.setPrice(new BigDecimal("1440.00"));
+        request.setQuantity(10);
+        return request;
+    }
+}
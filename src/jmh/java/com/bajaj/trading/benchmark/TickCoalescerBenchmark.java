@@ -0,0 +1,92 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.marketdata.TickCoalescer;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestion-side throughput of the tick coalescer
+ * One operation = one tick offered, so ops/s is ticks per second.
+ * 
+ * Run: mvn -Pbenchmark compile exec:exec -Djmh.args="TickCoalescerBenchmark"
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickCoalescerBenchmark {
+    
+    @Param({"10", "1000", "100000"})
+    private int symbolCount;
+    
+    private TickCoalescer coalescer;
+    private String[] symbols;
+    private BigDecimal[] prices;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        coalescer = new TickCoalescer(symbolCount);
+        symbols = new String[symbolCount];
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = "SYM" + i;
+        }
+        prices = new BigDecimal[64];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = new BigDecimal("2400.00").add(BigDecimal.valueOf(i, 2));
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class ProducerCursor {
+        int next;
+    }
+    
+    @State(Scope.Thread)
+    public static class ConsumerBuffer {
+        final Map<String, BigDecimal> batch = new HashMap<>();
+    }
+    
+    /**
+     * One feed thread offering ticks while one publisher thread drains batches
+     */
+    @Benchmark
+    @Group("feed")
+    @GroupThreads(1)
+    public boolean offer(ProducerCursor cursor) {
+        int i = cursor.next++;
+        return coalescer.offer(symbols[i % symbols.length], prices[i & 63]);
+    }
+    
+    @Benchmark
+    @Group("feed")
+    @GroupThreads(1)
+    public int drain(ConsumerBuffer buffer) {
+        buffer.batch.clear();
+        return coalescer.drain(buffer.batch, 5000);
+    }
+    
+    /**
+     * Four feed threads offering ticks concurrently, one publisher draining
+     */
+    @Benchmark
+    @Group("multiFeed")
+    @GroupThreads(4)
+    public boolean multiOffer(ProducerCursor cursor) {
+        int i = cursor.next++;
+        return coalescer.offer(symbols[i % symbols.length], prices[i & 63]);
+    }
+    
+    @Benchmark
+    @Group("multiFeed")
+    @GroupThreads(1)
+    public int multiDrain(ConsumerBuffer buffer) {
+        buffer.batch.clear();
+        return coalescer.drain(buffer.batch, 5000);
+    }
+}
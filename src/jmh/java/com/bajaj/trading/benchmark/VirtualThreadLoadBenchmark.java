@@ -0,0 +1,172 @@
+package com.bajaj.trading.benchmark;
+
+import com.bajaj.trading.TradingApplication;
+import com.bajaj.trading.auth.AuthInterceptor;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.service.OrderService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Platform threads vs virtual threads under many concurrent clients
+ * 
+ * Boots the application twice in this JVM (Tomcat platform-thread pool, then
+ * spring.threads.virtual.enabled=true) and, for each client count, runs a closed loop: every
+ * client is a virtual thread sending GET requests back to back over its own connection.
+ * The endpoint runs a JPA query on the request thread. Prints requests/s and latency
+ * percentiles per mode and client count.
+ * 
+ * Not a JMH benchmark (JMH cannot drive thousands of concurrent clients); it has its own main():
+ *   mvn -Pbenchmark compile exec:exec -Dbenchmark.main=com.bajaj.trading.benchmark.VirtualThreadLoadBenchmark \
+ *       -Djmh.args="1000,5000,10000 10 /api/v1/trades"
+ * Arguments: client counts, seconds per run, path. Needs a file descriptor limit above
+ * 2 x clients (client and server share the process), e.g. ulimit -n 25000.
+ */
+public class VirtualThreadLoadBenchmark {
+    
+    private static final int SEED_ORDERS = 50;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    
+    public static void main(String[] args) throws Exception {
+        int[] clientCounts = Arrays.stream((args.length > 0 ? args[0] : "1000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration runTime = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 10);
+        String path = args.length > 2 ? args[2] : "/api/v1/trades";
+        
+        List<String> results = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            ConfigurableApplicationContext context = SpringApplication.run(TradingApplication.class,
+                    "--server.port=0",
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--server.tomcat.max-connections=" + (Arrays.stream(clientCounts).max().orElse(0) + 1000),
+                    "--server.tomcat.accept-count=10000",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.bajaj.trading=WARN");
+            try {
+                seed(context.getBean(OrderService.class));
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                URI uri = URI.create("http://localhost:" + port + path);
+                
+                for (int clients : clientCounts) {
+                    run(uri, clients, WARMUP);
+                    Result result = run(uri, clients, runTime);
+                    results.add(result.format(virtual ? "virtual" : "platform", clients));
+                    System.out.println(results.get(results.size() - 1));
+                }
+            } finally {
+                context.close();
+            }
+        }
+        
+        System.out.println();
+        System.out.println(Result.HEADER);
+        results.forEach(System.out::println);
+    }
+    
+    /**
+     * Give the endpoint something to read: a few executed orders and their trades
+     */
+    private static void seed(OrderService orderService) {
+        for (int i = 0; i < SEED_ORDERS; i++) {
+            Order order = new Order();
+            order.setSymbol("INFY");
+            order.setOrderType(Order.OrderType.BUY);
+            order.setOrderStyle(Order.OrderStyle.MARKET);
+            order.setQuantity(1);
+            orderService.placeOrder(AuthInterceptor.DEFAULT_USER_ID, order);
+        }
+    }
+    
+    private static Result run(URI uri, int clients, Duration duration) throws InterruptedException {
+        LongAdder errors = new LongAdder();
+        Latencies[] latencies = new Latencies[clients];
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        
+        // Closed in reverse order: wait for every client to finish, then close the connections
+        try (HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build();
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Latencies mine = latencies[i] = new Latencies();
+                clientThreads.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        mine.add(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+        return Result.of(latencies, errors.sum(), duration);
+    }
+    
+    /**
+     * Latencies of one client, in nanoseconds (single writer, read after the run)
+     */
+    private static final class Latencies {
+        
+        private long[] values = new long[256];
+        private int size;
+        
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+    }
+    
+    private record Result(long requests, long errors, double perSecond, double p50Ms, double p99Ms, double maxMs) {
+        
+        static final String HEADER = String.format("%-9s %8s %10s %9s %9s %9s %8s",
+                "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        
+        static Result of(Latencies[] perClient, long errors, Duration duration) {
+            long[] all = new long[Arrays.stream(perClient).mapToInt(latencies -> latencies.size).sum()];
+            int offset = 0;
+            for (Latencies latencies : perClient) {
+                System.arraycopy(latencies.values, 0, all, offset, latencies.size);
+                offset += latencies.size;
+            }
+            Arrays.sort(all);
+            return new Result(all.length, errors, all.length / (duration.toMillis() / 1000.0),
+                    percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        }
+        
+        private static double percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+        }
+        
+        String format(String mode, int clients) {
+            return String.format("%-9s %8d %10.0f %9.1f %9.1f %9.1f %8d", mode, clients, perSecond, p50Ms, p99Ms, maxMs, errors);
+        }
+    }
+}
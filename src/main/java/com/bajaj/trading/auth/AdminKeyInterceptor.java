@@ -0,0 +1,44 @@
+package com.bajaj.trading.auth;
+
+import com.bajaj.trading.exception.UnauthorizedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Admin Key Interceptor - Guards token issuance and admin diagnostics with X-Admin-Key
+ * Open when trading.auth.admin-key is not set (local demo), with a warning at startup.
+ */
+@Component
+@Slf4j
+public class AdminKeyInterceptor implements HandlerInterceptor {
+    
+    public static final String HEADER = "X-Admin-Key";
+    
+    private final byte[] adminKey;
+    
+    public AdminKeyInterceptor(@Value("${trading.auth.admin-key:}") String adminKey) {
+        this.adminKey = adminKey.getBytes(StandardCharsets.UTF_8);
+        if (adminKey.isEmpty()) {
+            log.warn("trading.auth.admin-key not set: anyone can issue tokens and read admin endpoints");
+        }
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (adminKey.length == 0) {
+            return true;
+        }
+        String given = request.getHeader(HEADER);
+        if (given == null || !MessageDigest.isEqual(given.getBytes(StandardCharsets.UTF_8), adminKey)) {
+            throw new UnauthorizedException("Missing or invalid " + HEADER);
+        }
+        return true;
+    }
+}
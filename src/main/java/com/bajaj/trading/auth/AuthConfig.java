@@ -0,0 +1,30 @@
+package com.bajaj.trading.auth;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Which requests need a user and which need the admin key
+ * Instruments are public market data; token issuance and diagnostics are admin-only (process-wide
+ * stats live under /api/v1/admin), and so is the quote cache under /api/v1/instruments/cache (its
+ * DELETEs change what every user is served).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AuthConfig implements WebMvcConfigurer {
+    
+    private final AuthInterceptor authInterceptor;
+    private final AdminKeyInterceptor adminKeyInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(authInterceptor)
+                .addPathPatterns("/api/v1/**")
+                .excludePathPatterns("/api/v1/instruments/**", "/api/v1/instruments", "/api/v1/auth/**", "/api/v1/admin/**");
+        registry.addInterceptor(adminKeyInterceptor)
+                .addPathPatterns("/api/v1/auth/**", "/api/v1/admin/**",
+                        "/api/v1/instruments/cache", "/api/v1/instruments/cache/**");
+    }
+}
@@ -0,0 +1,61 @@
+package com.bajaj.trading.auth;
+
+import com.bajaj.trading.exception.UnauthorizedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Auth Interceptor - Resolves the calling user of every account request
+ * 
+ * Authorization: Bearer <token> (see UserTokens). The user id is stored as the request attribute
+ * USER_ID, which controllers read with @RequestAttribute(AuthInterceptor.USER_ID).
+ * SSE clients (EventSource cannot set headers) may pass the token as ?access_token= on the stream.
+ * 
+ * Without a token: the default user when trading.auth.required=false (the demo setup), else 401.
+ */
+@Component
+public class AuthInterceptor implements HandlerInterceptor {
+    
+    public static final String USER_ID = "trading.userId";
+    public static final String DEFAULT_USER_ID = "user123";
+    
+    private static final String BEARER = "Bearer ";
+    private static final String STREAM_PATH = "/api/v1/stream";
+    
+    private final UserTokens tokens;
+    private final boolean required;
+    
+    public AuthInterceptor(UserTokens tokens, @Value("${trading.auth.required:false}") boolean required) {
+        this.tokens = tokens;
+        this.required = required;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String token = token(request);
+        String userId;
+        if (token != null) {
+            userId = tokens.verify(token).orElseThrow(() -> new UnauthorizedException("Invalid token"));
+        } else if (!required) {
+            userId = DEFAULT_USER_ID;
+        } else {
+            throw new UnauthorizedException("Missing bearer token");
+        }
+        request.setAttribute(USER_ID, userId);
+        return true;
+    }
+    
+    private static String token(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return header.substring(BEARER.length()).trim();
+        }
+        if (request.getRequestURI().startsWith(STREAM_PATH)) {
+            return request.getParameter("access_token");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bajaj.trading.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * User Tokens - Issues and verifies signed bearer tokens that carry the user id
+ * 
+ * Token = userId + "." + base64url(HMAC-SHA256(secret, userId)). Verifying is one HMAC over
+ * a short string: no session store, no database lookup, so every request can be checked.
+ * Without trading.auth.secret a random secret is generated and tokens end with the process.
+ */
+@Component
+@Slf4j
+public class UserTokens {
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Pattern USER_ID = Pattern.compile("[A-Za-z0-9_.@-]{1,64}");
+    
+    private final Mac prototype;
+    
+    public UserTokens(@Value("${trading.auth.secret:}") String secret) throws GeneralSecurityException {
+        byte[] key;
+        if (secret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("trading.auth.secret not set: using a random secret, tokens will not survive a restart");
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        prototype = Mac.getInstance(ALGORITHM);
+        prototype.init(new SecretKeySpec(key, ALGORITHM));
+    }
+    
+    /**
+     * Issue a token for a user id (letters, digits and _ . @ -, at most 64 characters)
+     */
+    public String issue(String userId) {
+        if (userId == null || !USER_ID.matcher(userId).matches()) {
+            throw new IllegalArgumentException("userId must be 1-64 characters of letters, digits, _ . @ -");
+        }
+        return userId + '.' + sign(userId);
+    }
+    
+    /**
+     * The user id a token was issued for, or empty if the token is malformed or forged
+     */
+    public Optional<String> verify(String token) {
+        int dot = token.lastIndexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+        String userId = token.substring(0, dot);
+        byte[] expected = sign(userId).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        // Constant time, so the signature cannot be guessed byte by byte
+        return MessageDigest.isEqual(expected, actual) ? Optional.of(userId) : Optional.empty();
+    }
+    
+    private String sign(String userId) {
+        try {
+            // Mac is not thread-safe; a clone of the initialized prototype skips the key setup
+            Mac mac = (Mac) prototype.clone();
+            byte[] signature = mac.doFinal(userId.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " provider does not support clone()", e);
+        }
+    }
+}
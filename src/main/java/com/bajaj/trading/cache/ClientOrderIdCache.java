@@ -0,0 +1,151 @@
+package com.bajaj.trading.cache;
+
+import com.bajaj.trading.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.bajaj.trading.engine.TransactionHooks.afterCommit;
+
+/**
+ * Client Order ID Cache - (user, clientOrderId) → orderId of recently accepted orders
+ * 
+ * - Lookups are one ConcurrentHashMap get, without locks
+ * - Entries are grouped in time buckets (the window split in BUCKETS slices); when a slice is
+ *   older than the window, its keys are removed in one pass - no per-entry timers or scans
+ * - max-entries bounds memory: past it the oldest bucket is dropped early, however young
+ * 
+ * Only committed orders are added, so a rolled back order can be retried. The cache is the fast
+ * path, not the record: an id that aged out (or predates a restart) is found through the unique
+ * (user_id, client_order_id) index instead.
+ */
+@Component
+@Slf4j
+public class ClientOrderIdCache {
+    
+    private static final int BUCKETS = 16;
+    
+    private final long windowMinutes;
+    private final long bucketMillis;
+    private final int maxEntries;
+    
+    private final Map<String, Long> orderIds = new ConcurrentHashMap<>();
+    private final ArrayDeque<Bucket> buckets = new ArrayDeque<>();   // oldest first, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    
+    public ClientOrderIdCache(@Value("${trading.orders.dedupe.window-minutes:1440}") long windowMinutes,
+                              @Value("${trading.orders.dedupe.max-entries:1000000}") int maxEntries) {
+        if (windowMinutes < 1 || maxEntries < 1) {
+            throw new IllegalArgumentException("trading.orders.dedupe window and max-entries must be positive");
+        }
+        this.windowMinutes = windowMinutes;
+        this.bucketMillis = Math.max(1, TimeUnit.MINUTES.toMillis(windowMinutes) / BUCKETS);
+        this.maxEntries = maxEntries;
+    }
+    
+    /**
+     * Order id accepted earlier for this client order id, if it is still cached
+     */
+    public Long get(String userId, String clientOrderId) {
+        Long orderId = orderIds.get(key(userId, clientOrderId));
+        if (orderId != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return orderId;
+    }
+    
+    /**
+     * Remember an order under its client order id once the surrounding transaction commits
+     */
+    public void onAccepted(Order order) {
+        String userId = order.getUserId();
+        String clientOrderId = order.getClientOrderId();
+        long orderId = order.getOrderId();
+        afterCommit(() -> put(userId, clientOrderId, orderId, System.currentTimeMillis()));
+    }
+    
+    /**
+     * Remember a committed order under its client order id
+     */
+    public void put(String userId, String clientOrderId, long orderId, long nowMillis) {
+        String key = key(userId, clientOrderId);
+        lock.lock();
+        try {
+            Bucket bucket = current(nowMillis);
+            if (orderIds.putIfAbsent(key, orderId) == null) {
+                bucket.keys.add(key);
+            }
+            while (orderIds.size() > maxEntries && !buckets.isEmpty()) {
+                drop(buckets.pollFirst());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public CacheStats getStats() {
+        return new CacheStats(orderIds.size(), maxEntries, windowMinutes,
+                hits.sum(), misses.sum(), expired.sum());
+    }
+    
+    // Bucket of the current time slice; expires the slices that fell out of the window
+    private Bucket current(long nowMillis) {
+        long number = nowMillis / bucketMillis;
+        Bucket newest = buckets.peekLast();
+        if (newest == null || newest.number < number) {
+            newest = new Bucket(number);
+            buckets.addLast(newest);
+        }
+        while (buckets.peekFirst().number <= number - BUCKETS) {
+            drop(buckets.pollFirst());
+        }
+        return newest;   // a clock step backwards keeps filling the newest slice
+    }
+    
+    private void drop(Bucket bucket) {
+        for (String key : bucket.keys) {
+            orderIds.remove(key);
+        }
+        expired.add(bucket.keys.size());
+        log.debug("Expired {} client order id(s) of slice {}", bucket.keys.size(), bucket.number);
+    }
+    
+    // Client order ids never contain '|' (see OrderService), so the key is unambiguous
+    private static String key(String userId, String clientOrderId) {
+        return userId + '|' + clientOrderId;
+    }
+    
+    private static final class Bucket {
+        
+        private final long number;
+        private final List<String> keys = new ArrayList<>();
+        
+        Bucket(long number) {
+            this.number = number;
+        }
+    }
+    
+    public record CacheStats(
+        int size,
+        int maxEntries,
+        long windowMinutes,
+        long hits,
+        long misses,
+        long expired
+    ) {}
+}
@@ -0,0 +1,41 @@
+package com.bajaj.trading.cache;
+
+import com.bajaj.trading.model.Instrument;
+
+import java.math.BigDecimal;
+
+/**
+ * Quote - Immutable snapshot of an instrument held by the {@link QuoteCache}
+ * A price change never mutates a Quote; it replaces it with a copy carrying a higher version.
+ */
+public record Quote(
+    Long id,
+    String symbol,
+    String exchange,
+    String instrumentType,
+    BigDecimal lastTradedPrice,
+    long version
+) {
+    
+    static Quote from(Instrument instrument, long version) {
+        return new Quote(
+            instrument.getId(),
+            instrument.getSymbol(),
+            instrument.getExchange(),
+            instrument.getInstrumentType(),
+            instrument.getLastTradedPrice(),
+            version
+        );
+    }
+    
+    Quote withPrice(BigDecimal price, long newVersion) {
+        return new Quote(id, symbol, exchange, instrumentType, price, newVersion);
+    }
+    
+    /**
+     * Detached Instrument copy for API responses
+     */
+    public Instrument toInstrument() {
+        return new Instrument(id, symbol, exchange, instrumentType, lastTradedPrice);
+    }
+}
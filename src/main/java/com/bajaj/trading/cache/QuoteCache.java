@@ -0,0 +1,146 @@
+package com.bajaj.trading.cache;
+
+import com.bajaj.trading.event.PriceChangedEvent;
+import com.bajaj.trading.repository.InstrumentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quote Cache - symbol → Quote, read without locks in front of InstrumentRepository.findBySymbol
+ * 
+ * - Reads are a ConcurrentHashMap lookup of an immutable Quote (no locks, no SQL on a hit)
+ * - A miss loads the instrument once from the database
+ * - Committed price changes replace the Quote with a new, higher-versioned snapshot
+ * - Invalidation is explicit: {@link #invalidate(String)} / {@link #invalidateAll()}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuoteCache {
+    
+    private final InstrumentRepository instrumentRepository;
+    
+    private final Map<String, Quote> quotes = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong priceChanges = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    
+    /**
+     * Get the latest quote for a symbol, loading it from the database on a miss
+     * Empty for a null symbol (an order without one), so callers report it as a validation error.
+     */
+    public Optional<Quote> get(String symbol) {
+        if (symbol == null) {
+            return Optional.empty();
+        }
+        Quote quote = quotes.get(symbol);
+        if (quote != null) {
+            hits.increment();
+            return Optional.of(quote);
+        }
+        
+        misses.increment();
+        long changesBeforeLoad = priceChanges.get();
+        return instrumentRepository.findBySymbol(symbol)
+            .map(instrument -> {
+                Quote loaded = Quote.from(instrument, version.incrementAndGet());
+                // A concurrent price update wins over what we just read from the database
+                Quote existing = quotes.putIfAbsent(symbol, loaded);
+                if (existing != null) {
+                    return existing;
+                }
+                // A price committed while we were loading may be newer than our row: don't keep it
+                if (priceChanges.get() != changesBeforeLoad) {
+                    quotes.remove(symbol, loaded);
+                }
+                return loaded;
+            });
+    }
+    
+    /**
+     * Keep cached quotes coherent with committed price updates
+     * Runs after the price transaction commits, so a rolled back update is never visible.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        priceChanges.incrementAndGet();
+        Quote updated = quotes.computeIfPresent(event.symbol(),
+            (symbol, quote) -> quote.withPrice(event.lastTradedPrice(), version.incrementAndGet()));
+        if (updated != null) {
+            updates.increment();
+        }
+    }
+    
+    /**
+     * Drop one symbol; the next read reloads it from the database
+     */
+    public void invalidate(String symbol) {
+        if (quotes.remove(symbol) != null) {
+            invalidations.increment();
+            log.info("Quote cache entry invalidated: {}", symbol);
+        }
+    }
+    
+    /**
+     * Drop every cached quote (e.g. after instruments are edited directly in the database)
+     */
+    public void invalidateAll() {
+        int size = quotes.size();
+        quotes.clear();
+        invalidations.add(size);
+        log.info("Quote cache cleared ({} entries)", size);
+    }
+    
+    public CacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new CacheStats(
+            quotes.size(),
+            hitCount,
+            missCount,
+            total == 0 ? 0.0 : (double) hitCount / total,
+            updates.sum(),
+            invalidations.sum(),
+            version.get()
+        );
+    }
+    
+    public record CacheStats(
+        int size,
+        long hits,
+        long misses,
+        double hitRatio,
+        long updates,
+        long invalidations,
+        long version
+    ) {}
+}
+
+/**
+ * INTERVIEW EXPLANATION:
+ * 
+ * Q: Why cache quotes at all?
+ * A: Every order and every portfolio holding needs the current price
+ *    Without the cache each one is a SQL round trip, for data that only changes on ticks
+ * 
+ * Q: How can readers skip locks and still be safe?
+ * A: Quote is immutable. Writers never change a Quote, they swap in a new one.
+ *    A reader either sees the old snapshot or the new one - never half of each
+ * 
+ * Q: Why update the cache AFTER commit?
+ * A: If the price transaction rolls back, the cache must not show the new price
+ *    @TransactionalEventListener runs only once the commit succeeded
+ */
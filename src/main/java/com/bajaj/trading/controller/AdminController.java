@@ -0,0 +1,103 @@
+package com.bajaj.trading.controller;
+
+import com.bajaj.trading.cache.ClientOrderIdCache;
+import com.bajaj.trading.metrics.OrderTimelines;
+import com.bajaj.trading.marketdata.InstrumentMasterLoader;
+import com.bajaj.trading.service.InstrumentService;
+import com.bajaj.trading.service.OrderService;
+import com.bajaj.trading.service.TradeService;
+import com.bajaj.trading.service.TradeWriteBehind;
+import com.bajaj.trading.stream.UserStreamHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * ==================== ADMIN CONTROLLER ====================
+ * Diagnostics for operators (not part of the trading API)
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin", description = "Diagnostics")
+public class AdminController {
+    
+    private static final int MAX_SLOWEST = 1000;
+    
+    private final OrderTimelines timelines;
+    private final OrderService orderService;
+    private final InstrumentService instrumentService;
+    private final TradeService tradeService;
+    private final UserStreamHub streamHub;
+    
+    /**
+     * GET /api/v1/admin/orders/slowest?limit=20
+     * The slowest of the last orders placed, with the time spent in each step
+     */
+    @GetMapping("/orders/slowest")
+    @Operation(summary = "Slowest recent orders", description = "Slowest of the recently placed orders, slowest first, "
+            + "with microseconds from receipt to each step: validated, persisted, executed, trade persisted, "
+            + "portfolio updated, committed")
+    public ResponseEntity<List<OrderTimelines.Timeline>> getSlowestOrders(
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_SLOWEST) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SLOWEST);
+        }
+        log.info("GET /api/v1/admin/orders/slowest - limit {} of last {} orders",
+                limit, Math.min(timelines.getRecorded(), timelines.getCapacity()));
+        return ResponseEntity.ok(timelines.slowest(limit));
+    }
+    
+    /**
+     * POST /api/v1/admin/instruments/reload
+     * Re-read the instrument master file; only new and changed instruments are written
+     */
+    @PostMapping("/instruments/reload")
+    @Operation(summary = "Reload instrument master", description = "Parses trading.instruments.file again and "
+            + "inserts new symbols / updates changed ones in batches, while quotes and orders keep being served")
+    public ResponseEntity<InstrumentMasterLoader.LoadResult> reloadInstruments() {
+        log.info("POST /api/v1/admin/instruments/reload");
+        return ResponseEntity.ok(instrumentService.reloadInstruments());
+    }
+    
+    /**
+     * GET /api/v1/admin/orders/client-ids/stats
+     * Size and hit ratio of the client order id dedupe cache
+     */
+    @GetMapping("/orders/client-ids/stats")
+    @Operation(summary = "Client order id cache stats", description = "Entries, window, hits, misses and expired "
+            + "entries of the cache that answers retried orders")
+    public ResponseEntity<ClientOrderIdCache.CacheStats> getClientOrderIdStats() {
+        return ResponseEntity.ok(orderService.getClientOrderIdStats());
+    }
+    
+    /**
+     * GET /api/v1/admin/stream/stats
+     * Counters of the push streams of all users
+     */
+    @GetMapping("/stream/stats")
+    @Operation(summary = "Stream statistics", description = "Open streams, events delivered, conflated and dropped")
+    public ResponseEntity<UserStreamHub.StreamStats> getStreamStats() {
+        return ResponseEntity.ok(streamHub.getStats());
+    }
+    
+    /**
+     * GET /api/v1/admin/trades/writer/stats
+     * Write-behind queue depth and flush latency
+     */
+    @GetMapping("/trades/writer/stats")
+    @Operation(summary = "Trade writer statistics", description = "Queue depth, trades written and flush latency of the write-behind writer")
+    public ResponseEntity<TradeWriteBehind.WriterStats> getTradeWriterStats() {
+        return ResponseEntity.ok(tradeService.getWriterStats());
+    }
+}
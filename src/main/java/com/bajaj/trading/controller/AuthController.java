@@ -0,0 +1,42 @@
+package com.bajaj.trading.controller;
+
+import com.bajaj.trading.auth.UserTokens;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * ==================== AUTH CONTROLLER ====================
+ * Issues bearer tokens for user accounts (admin key required when configured)
+ */
+@RestController
+@RequestMapping("/api/v1/auth")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Auth", description = "Bearer tokens for user accounts")
+public class AuthController {
+    
+    private final UserTokens tokens;
+    
+    /**
+     * POST /api/v1/auth/token  {"userId": "alice"}
+     * Send the token as "Authorization: Bearer <token>" on every account request
+     */
+    @PostMapping("/token")
+    @Operation(summary = "Issue token", description = "Issues a bearer token for a user id; needs X-Admin-Key "
+            + "when trading.auth.admin-key is set")
+    public ResponseEntity<TokenResponse> issueToken(@RequestBody TokenRequest request) {
+        log.info("POST /api/v1/auth/token - Issuing token for {}", request.userId());
+        return ResponseEntity.ok(new TokenResponse(request.userId(), tokens.issue(request.userId())));
+    }
+    
+    record TokenRequest(String userId) {}
+    
+    record TokenResponse(String userId, String token) {}
+}
@@ -1,5 +1,8 @@
 package com.bajaj.trading.controller;
 
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.engine.CandleAggregator;
+import com.bajaj.trading.marketdata.InstrumentSearchIndex;
 import com.bajaj.trading.model.Instrument;
 import com.bajaj.trading.service.InstrumentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,6 +26,7 @@ import java.util.List;
 public class InstrumentController {
     
     private final InstrumentService instrumentService;
+    private final CandleAggregator candleAggregator;
     
     /**
      * GET /api/v1/instruments
@@ -38,6 +42,21 @@ public class InstrumentController {
         return ResponseEntity.ok(instruments);
     }
     
+    /**
+     * GET /api/v1/instruments/search?q=TC&exchange=NSE&type=EQUITY&limit=20
+     * Symbol prefix search for autocomplete, answered from the in-memory index
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search instruments", description = "Returns up to 'limit' (default 20, max 100) "
+            + "instruments whose symbol starts with q, optionally only those of one exchange / type, in symbol order")
+    public ResponseEntity<List<InstrumentSearchIndex.Entry>> searchInstruments(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String exchange,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(instrumentService.searchInstruments(q, exchange, type, limit));
+    }
+    
     /**
      * GET /api/v1/instruments/{symbol}
      * Fetch specific instrument by symbol
@@ -51,6 +70,54 @@ public class InstrumentController {
             .map(ResponseEntity::ok)  // If found, return 200 OK
             .orElse(ResponseEntity.notFound().build());  // If not found, return 404
     }
+    
+    /**
+     * GET /api/v1/instruments/{symbol}/candles?interval=1m&limit=100
+     * OHLCV bars built in memory from executed trades (no database reads), oldest first
+     */
+    @GetMapping("/{symbol}/candles")
+    @Operation(summary = "Get candles", description = "Returns the OHLCV bars of the last 'limit' intervals "
+            + "(1s, 1m, 5m or 1d) of a symbol; intervals without trades have no bar")
+    public ResponseEntity<List<CandleAggregator.Candle>> getCandles(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String interval,
+            @RequestParam(defaultValue = "100") Integer limit) {
+        return ResponseEntity.ok(candleAggregator.getCandles(symbol, CandleAggregator.Interval.of(interval), limit));
+    }
+    
+    /**
+     * GET /api/v1/instruments/cache/stats
+     * Quote cache hit/miss statistics
+     */
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Get quote cache stats", description = "Returns hit/miss/invalidation counters of the quote cache")
+    public ResponseEntity<QuoteCache.CacheStats> getQuoteCacheStats() {
+        return ResponseEntity.ok(instrumentService.getQuoteCacheStats());
+    }
+    
+    /**
+     * DELETE /api/v1/instruments/cache/{symbol}
+     * Invalidate one cached quote (reloaded from the database on next read)
+     */
+    @DeleteMapping("/cache/{symbol}")
+    @Operation(summary = "Invalidate cached quote", description = "Drops one symbol from the quote cache")
+    public ResponseEntity<Void> invalidateQuote(@PathVariable String symbol) {
+        log.info("DELETE /api/v1/instruments/cache/{} - Invalidating quote", symbol);
+        instrumentService.invalidateQuotes(symbol);
+        return ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * DELETE /api/v1/instruments/cache
+     * Invalidate the whole quote cache
+     */
+    @DeleteMapping("/cache")
+    @Operation(summary = "Invalidate quote cache", description = "Drops every entry from the quote cache")
+    public ResponseEntity<Void> invalidateAllQuotes() {
+        log.info("DELETE /api/v1/instruments/cache - Invalidating all quotes");
+        instrumentService.invalidateQuotes(null);
+        return ResponseEntity.noContent().build();
+    }
 }
 
 /**
@@ -1,5 +1,7 @@
 package com.bajaj.trading.controller;
 
+import com.bajaj.trading.auth.AuthInterceptor;
+import com.bajaj.trading.model.CursorPage;
 import com.bajaj.trading.model.Order;
 import com.bajaj.trading.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -7,10 +9,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -23,13 +27,16 @@ public class OrderController {
     
     private final OrderService orderService;
     
+    private static final int MAX_BATCH_SIZE = 500;
+    
     @PostMapping
     @Operation(summary = "Place new order", description = "Creates and executes a new buy/sell order")
-    public ResponseEntity<?> placeOrder(@Valid @RequestBody Order orderRequest) {
+    public ResponseEntity<?> placeOrder(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                        @Valid @RequestBody Order orderRequest) {
         log.info("POST /api/v1/orders - Placing order: {}", orderRequest);
         
         try {
-            Order placedOrder = orderService.placeOrder(orderRequest);
+            Order placedOrder = orderService.placeOrder(userId, orderRequest);
             return ResponseEntity.status(HttpStatus.CREATED).body(placedOrder);
         } catch (IllegalArgumentException e) {
             log.error("Order validation failed: {}", e.getMessage());
@@ -41,20 +48,69 @@ public class OrderController {
         }
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Place a basket of orders", description = "Places up to " + MAX_BATCH_SIZE
+            + " orders in one request and one transaction; returns a result per order")
+    public ResponseEntity<?> placeOrders(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                         @RequestBody List<Order> orderRequests) {
+        log.info("POST /api/v1/orders/batch - Placing {} orders", orderRequests.size());
+        
+        if (orderRequests.isEmpty() || orderRequests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Basket must contain between 1 and " + MAX_BATCH_SIZE + " orders"));
+        }
+        
+        List<OrderService.OrderResult> results = orderService.placeOrders(userId, orderRequests);
+        return ResponseEntity.ok(results);
+    }
+    
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order by ID", description = "Returns order details and status")
-    public ResponseEntity<?> getOrderById(@PathVariable Long orderId) {
+    public ResponseEntity<?> getOrderById(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                          @PathVariable Long orderId) {
         log.info("GET /api/v1/orders/{} - Fetching order", orderId);
-        return orderService.getOrderById(orderId)
+        return orderService.getOrderById(userId, orderId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+    
+    @DeleteMapping("/{orderId}")
+    @Operation(summary = "Cancel order", description = "Cancels an open LIMIT order; whatever is unfilled "
+            + "leaves the book. An order that is already executing can no longer be cancelled")
+    public ResponseEntity<?> cancelOrder(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                         @PathVariable Long orderId) {
+        log.info("DELETE /api/v1/orders/{} - Cancelling order", orderId);
+        return orderService.cancelOrder(userId, orderId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+    
+    @PatchMapping("/{orderId}")
+    @Operation(summary = "Modify order", description = "Changes the price and / or total quantity of an open "
+            + "LIMIT order; fields left out keep their value. Only a lower quantity at the same price keeps "
+            + "the order's queue position")
+    public ResponseEntity<?> modifyOrder(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                         @PathVariable Long orderId,
+                                         @RequestBody Order changes) {
+        log.info("PATCH /api/v1/orders/{} - Modifying order: quantity {}, price {}",
+                orderId, changes.getQuantity(), changes.getPrice());
+        return orderService.modifyOrder(userId, orderId, changes)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
     }
     
     @GetMapping
-    @Operation(summary = "Get all orders", description = "Returns list of all orders for the user")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        log.info("GET /api/v1/orders - Fetching all orders");
-        List<Order> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    @Operation(summary = "Get orders", description = "Returns the user's orders newest first, one page at a time; "
+            + "pass nextCursor as cursor for the next page")
+    public ResponseEntity<CursorPage<Order>> getOrders(
+            @RequestAttribute(AuthInterceptor.USER_ID) String userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /api/v1/orders - Fetching orders before {}", cursor);
+        return ResponseEntity.ok(orderService.getOrders(userId, cursor, limit, status, symbol, from, to));
     }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.bajaj.trading.controller;
 
+import com.bajaj.trading.auth.AuthInterceptor;
+import com.bajaj.trading.engine.PnlEngine;
+import com.bajaj.trading.engine.RiskEngine;
 import com.bajaj.trading.model.Portfolio;
 import com.bajaj.trading.model.Trade;
 import com.bajaj.trading.service.TradeService;
@@ -27,23 +30,61 @@ class PortfolioController {
      */
     @GetMapping
     @Operation(summary = "Get portfolio", description = "Returns user's current stock holdings with live values")
-    public ResponseEntity<List<Portfolio>> getPortfolio() {
+    public ResponseEntity<List<Portfolio>> getPortfolio(@RequestAttribute(AuthInterceptor.USER_ID) String userId) {
         log.info("GET /api/v1/portfolio - Fetching portfolio");
         
-        List<Portfolio> portfolio = portfolioService.getPortfolio();
+        List<Portfolio> portfolio = portfolioService.getPortfolio(userId);
         return ResponseEntity.ok(portfolio);
     }
     
+    /**
+     * GET /api/v1/portfolio/pnl
+     * Realized and unrealized P&L of every symbol traded, and the totals
+     */
+    @GetMapping("/pnl")
+    @Operation(summary = "Get P&L", description = "Returns realized (closed lots) and unrealized (open lots at "
+            + "the latest price) P&L per symbol and in total")
+    public ResponseEntity<PnlEngine.PnlSummary> getPnl(@RequestAttribute(AuthInterceptor.USER_ID) String userId) {
+        log.info("GET /api/v1/portfolio/pnl - Fetching P&L");
+        return ResponseEntity.ok(portfolioService.getPnl(userId));
+    }
+    
+    /**
+     * GET /api/v1/portfolio/pnl/{symbol}
+     * P&L and open lots of one symbol
+     */
+    @GetMapping("/pnl/{symbol}")
+    @Operation(summary = "Get P&L by symbol", description = "Returns the P&L and open lots of one symbol")
+    public ResponseEntity<PnlEngine.SymbolPnl> getPnlBySymbol(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                                              @PathVariable String symbol) {
+        log.info("GET /api/v1/portfolio/pnl/{} - Fetching P&L", symbol);
+        return portfolioService.getPnlBySymbol(userId, symbol)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * GET /api/v1/portfolio/risk
+     * Buying power left and the limits new orders are checked against
+     */
+    @GetMapping("/risk")
+    @Operation(summary = "Get risk limits", description = "Returns remaining buying power, open BUY quantity "
+            + "per symbol and the pre-trade limits")
+    public ResponseEntity<RiskEngine.AccountRisk> getAccountRisk(@RequestAttribute(AuthInterceptor.USER_ID) String userId) {
+        return ResponseEntity.ok(portfolioService.getAccountRisk(userId));
+    }
+    
     /**
      * GET /api/v1/portfolio/{symbol}
      * Get holdings for a specific stock
      */
     @GetMapping("/{symbol}")
     @Operation(summary = "Get holding by symbol", description = "Returns holdings for a specific stock")
-    public ResponseEntity<Portfolio> getHoldingBySymbol(@PathVariable String symbol) {
+    public ResponseEntity<Portfolio> getHoldingBySymbol(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                                        @PathVariable String symbol) {
         log.info("GET /api/v1/portfolio/{} - Fetching holding", symbol);
         
-        Portfolio holding = portfolioService.getHoldingBySymbol(symbol);
+        Portfolio holding = portfolioService.getHoldingBySymbol(userId, symbol);
         
         if (holding != null) {
             return ResponseEntity.ok(holding);
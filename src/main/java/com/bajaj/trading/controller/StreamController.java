@@ -0,0 +1,40 @@
+package com.bajaj.trading.controller;
+
+import com.bajaj.trading.auth.AuthInterceptor;
+import com.bajaj.trading.stream.UserStreamHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * ==================== STREAM CONTROLLER ====================
+ * Server-Sent Events instead of polling orders and portfolio
+ */
+@RestController
+@RequestMapping("/api/v1/stream")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Stream", description = "Push updates of orders and portfolio")
+public class StreamController {
+    
+    private final UserStreamHub streamHub;
+    
+    /**
+     * GET /api/v1/stream
+     * Events: order (status / fill), holding (quantity / value of one symbol), portfolio (total value)
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream updates", description = "Server-Sent Events with order status changes, fills, "
+            + "holding and portfolio value changes; slow clients receive the latest state per order / symbol")
+    public SseEmitter stream(@RequestAttribute(AuthInterceptor.USER_ID) String userId) {
+        log.info("GET /api/v1/stream - Opening stream");
+        return streamHub.subscribe(userId);
+    }
+}
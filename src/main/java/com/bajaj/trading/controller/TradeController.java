@@ -1,5 +1,7 @@
 package com.bajaj.trading.controller;
 
+import com.bajaj.trading.auth.AuthInterceptor;
+import com.bajaj.trading.model.CursorPage;
 import com.bajaj.trading.model.Portfolio;
 import com.bajaj.trading.model.Trade;
 import com.bajaj.trading.service.TradeService;
@@ -8,9 +10,11 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -26,31 +30,38 @@ public class TradeController {
     private final TradeService tradeService;
     
     /**
-     * GET /api/v1/trades
-     * Fetch all executed trades for the user
+     * GET /api/v1/trades?cursor=&limit=&symbol=&from=&to=
+     * Fetch the user's executed trades, newest first, one page at a time
      */
     @GetMapping
-    @Operation(summary = "Get all trades", description = "Returns list of all executed trades")
-    public ResponseEntity<List<Trade>> getAllTrades() {
-        log.info("GET /api/v1/trades - Fetching all trades");
+    @Operation(summary = "Get trades", description = "Returns executed trades newest first, one page at a time; "
+            + "pass nextCursor as cursor for the next page")
+    public ResponseEntity<CursorPage<Trade>> getTrades(
+            @RequestAttribute(AuthInterceptor.USER_ID) String userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /api/v1/trades - Fetching trades before {}", cursor);
         
-        List<Trade> trades = tradeService.getAllTrades();
-        return ResponseEntity.ok(trades);
+        return ResponseEntity.ok(tradeService.getTrades(userId, cursor, limit, symbol, from, to));
     }
     
     /**
      * GET /api/v1/trades/order/{orderId}
-     * Get trade for a specific order
+     * Get trades (fills) for a specific order
      */
     @GetMapping("/order/{orderId}")
-    @Operation(summary = "Get trade by order ID", description = "Returns trade details for a specific order")
-    public ResponseEntity<Trade> getTradeByOrderId(@PathVariable Long orderId) {
-        log.info("GET /api/v1/trades/order/{} - Fetching trade", orderId);
+    @Operation(summary = "Get trades by order ID", description = "Returns all fills for a specific order")
+    public ResponseEntity<List<Trade>> getTradesByOrderId(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                                          @PathVariable Long orderId) {
+        log.info("GET /api/v1/trades/order/{} - Fetching trades", orderId);
         
-        Trade trade = tradeService.getTradeByOrderId(orderId);
+        List<Trade> trades = tradeService.getTradesByOrderId(userId, orderId);
         
-        if (trade != null) {
-            return ResponseEntity.ok(trade);
+        if (!trades.isEmpty()) {
+            return ResponseEntity.ok(trades);
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,162 @@
+package com.bajaj.trading.engine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Account Lanes - Single-writer execution per account
+ * 
+ * Every user is mapped to one of N lanes (a single thread each). All work that changes an
+ * account - placing orders, fills, holdings - runs on that account's lane, one task at a time,
+ * so each account is linearizable without database locks. Different users land on different
+ * lanes and run in parallel across cores.
+ * 
+ * Work is never blocked across lanes: a lane hands work for another account to that account's
+ * lane with {@link #submit}, so two lanes can never wait on each other.
+ */
+@Component
+@Slf4j
+public class AccountLanes {
+    
+    private static final ThreadLocal<Integer> CURRENT_LANE = new ThreadLocal<>();
+    
+    private final ExecutorService[] lanes;
+    
+    public AccountLanes(@Value("${trading.lanes.count:0}") int laneCount) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors() * 2;
+        this.lanes = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            int lane = i;
+            lanes[i] = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(() -> {
+                    CURRENT_LANE.set(lane);
+                    task.run();
+                }, "account-lane-" + lane);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        log.info("Started {} account lanes", count);
+    }
+    
+    /**
+     * Run a task on the account's lane and wait for its result
+     * Runs inline when the caller is already on that lane. Runtime exceptions are rethrown as-is.
+     */
+    public <T> T execute(String userId, Supplier<T> task) {
+        int lane = laneOf(userId);
+        if (isOnLane(lane)) {
+            return task.get();
+        }
+        
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(task, lanes[lane]);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for account lane", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+    
+    /**
+     * Queue a task on the account's lane without waiting
+     */
+    public void submit(String userId, Runnable task) {
+        lanes[laneOf(userId)].execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Account lane task for {} failed", userId, e);
+            }
+        });
+    }
+    
+    /**
+     * Queue a task on the account's lane once the current transaction commits
+     * (immediately if there is no transaction). Nothing is queued if it rolls back.
+     */
+    public void submitAfterCommit(String userId, Runnable task) {
+        TransactionHooks.afterCommit(() -> submit(userId, task));
+    }
+    
+    /**
+     * True if the calling thread is the lane that owns this account
+     */
+    public boolean isOnLaneOf(String userId) {
+        return isOnLane(laneOf(userId));
+    }
+    
+    public int getLaneCount() {
+        return lanes.length;
+    }
+    
+    private int laneOf(String userId) {
+        return Math.floorMod(userId.hashCode(), lanes.length);
+    }
+    
+    private static boolean isOnLane(int lane) {
+        Integer current = CURRENT_LANE.get();
+        return current != null && current == lane;
+    }
+    
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            try {
+                lane.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
+
+/**
+ * INTERVIEW EXPLANATION:
+ * 
+ * Q: What was the bug?
+ * A: Two SELL 10 orders arrive together, the user holds 10
+ *    Both read "10 available", both pass, both sell → quantity = -10
+ *    Same for two BUYs: both read the old average price, one update is lost
+ * 
+ * Q: Why not one big lock?
+ * A: Then every user waits for every other user - one core does all the work
+ * 
+ * Q: Why lanes instead of a lock per user?
+ * A: A fill touches TWO accounts (buyer and seller)
+ *    With locks, A waits for B while B waits for A → deadlock
+ *    With lanes, the other account's half is just queued on its lane - nobody waits
+ * 
+ * Q: Why must the transaction commit INSIDE the lane?
+ * A: Otherwise the next task for the same user could read the database
+ *    before the previous task's changes are visible
+ */
@@ -0,0 +1,58 @@
+package com.bajaj.trading.engine;
+
+import com.bajaj.trading.model.Order;
+
+/**
+ * BookOrder - The in-memory view of a LIMIT order resting in an {@link OrderBook}
+ * Orders at the same price are chained together (FIFO) inside their {@link PriceLevel}
+ * Prices are fixed-point units (see {@link com.bajaj.trading.model.Price})
+ */
+public final class BookOrder {
+    
+    private final long orderId;
+    private final String userId;
+    private final Order.OrderType side;
+    private final long price;
+    private int remainingQuantity;
+    
+    // Links inside the owning price level (null when not resting)
+    PriceLevel level;
+    BookOrder prev;
+    BookOrder next;
+    
+    public BookOrder(long orderId, String userId, Order.OrderType side, long price, int quantity) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.side = side;
+        this.price = price;
+        this.remainingQuantity = quantity;
+    }
+    
+    public long getOrderId() {
+        return orderId;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public Order.OrderType getSide() {
+        return side;
+    }
+    
+    public long getPrice() {
+        return price;
+    }
+    
+    public int getRemainingQuantity() {
+        return remainingQuantity;
+    }
+    
+    void reduce(int quantity) {
+        this.remainingQuantity -= quantity;
+    }
+    
+    public boolean isBuy() {
+        return side == Order.OrderType.BUY;
+    }
+}
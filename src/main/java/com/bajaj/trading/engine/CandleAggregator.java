@@ -0,0 +1,283 @@
+package com.bajaj.trading.engine;
+
+import com.bajaj.trading.model.Price;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.bajaj.trading.engine.TransactionHooks.afterCommit;
+
+/**
+ * Candle Aggregator - OHLCV bars per symbol, built in memory from executed trades
+ * 
+ * Every symbol keeps one ring per interval (1s / 1m / 5m / 1d), each with its own capacity. A
+ * bar's slot is its bucket number modulo the ring size, so a trade finds its bar with one division
+ * - O(1) whether it is the latest bar, a late trade for an earlier one, or the first trade after a
+ * quiet gap. A slot holding a bucket out of reach is simply overwritten; nothing is ever shifted.
+ * Rings are allocated small on first use and grow to their capacity only as bars accumulate.
+ * 
+ * Trades are applied after their transaction commits, so rolled back fills never show up.
+ * Bars are aligned to UTC (the 1d bar runs 00:00-24:00 UTC, i.e. 05:30-05:30 IST).
+ * Nothing here reads the database; bars start empty at every restart.
+ */
+@Component
+public class CandleAggregator {
+    
+    /**
+     * Bar lengths
+     */
+    public enum Interval {
+        S1("1s", TimeUnit.SECONDS.toMillis(1)),
+        M1("1m", TimeUnit.MINUTES.toMillis(1)),
+        M5("5m", TimeUnit.MINUTES.toMillis(5)),
+        D1("1d", TimeUnit.DAYS.toMillis(1));
+        
+        private final String key;
+        private final long millis;
+        
+        Interval(String key, long millis) {
+            this.key = key;
+            this.millis = millis;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        public static Interval of(String key) {
+            String normalized = key.toLowerCase(Locale.ROOT);
+            for (Interval interval : values()) {
+                if (interval.key.equals(normalized)) {
+                    return interval;
+                }
+            }
+            throw new IllegalArgumentException("Unknown interval: " + key + " (use 1s, 1m, 5m or 1d)");
+        }
+    }
+    
+    private static final Interval[] INTERVALS = Interval.values();
+    private static final int INITIAL_RING_SIZE = 16;
+    
+    private final int[] capacities = new int[INTERVALS.length];
+    private final Map<String, SymbolCandles> symbols = new ConcurrentHashMap<>();
+    
+    /**
+     * capacity = bars kept per interval; a per-interval value above 0 overrides it for that interval
+     */
+    @Autowired
+    public CandleAggregator(@Value("${trading.candles.capacity:1440}") int capacity,
+                            @Value("${trading.candles.capacity.1s:0}") int secondBars,
+                            @Value("${trading.candles.capacity.1m:0}") int minuteBars,
+                            @Value("${trading.candles.capacity.5m:0}") int fiveMinuteBars,
+                            @Value("${trading.candles.capacity.1d:0}") int dayBars) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("trading.candles.capacity must be at least 1");
+        }
+        int[] overrides = {secondBars, minuteBars, fiveMinuteBars, dayBars};
+        for (Interval interval : INTERVALS) {
+            int override = overrides[interval.ordinal()];
+            if (override < 0) {
+                throw new IllegalArgumentException("trading.candles.capacity." + interval.key + " must not be negative");
+            }
+            capacities[interval.ordinal()] = override > 0 ? override : capacity;
+        }
+    }
+    
+    /**
+     * The same capacity for every interval
+     */
+    public CandleAggregator(int capacity) {
+        this(capacity, 0, 0, 0, 0);
+    }
+    
+    /**
+     * Add a trade (price in Price units) to every interval of its symbol, once the surrounding
+     * transaction commits
+     */
+    public void onTrade(String symbol, long priceUnits, int quantity, long tradedAtMillis) {
+        afterCommit(() -> symbols.computeIfAbsent(symbol, key -> new SymbolCandles(capacities))
+                .add(priceUnits, quantity, tradedAtMillis));
+    }
+    
+    /**
+     * A symbol's bars of the last limit intervals, oldest first (intervals without trades have no bar)
+     */
+    public List<Candle> getCandles(String symbol, Interval interval, int limit) {
+        int capacity = getCapacity(interval);
+        if (limit < 1 || limit > capacity) {
+            throw new IllegalArgumentException("limit must be between 1 and " + capacity + " for " + interval.key);
+        }
+        SymbolCandles candles = symbols.get(symbol);
+        return candles == null ? List.of() : candles.latest(interval, limit);
+    }
+    
+    public int getCapacity(Interval interval) {
+        return capacities[interval.ordinal()];
+    }
+    
+    /**
+     * One symbol's rings, one per interval, guarded by one lock
+     */
+    private static final class SymbolCandles {
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int[] capacities;
+        private final Ring[] rings = new Ring[INTERVALS.length];  // allocated on the interval's first trade
+        
+        SymbolCandles(int[] capacities) {
+            this.capacities = capacities;
+        }
+        
+        void add(long price, int quantity, long tradedAtMillis) {
+            lock.lock();
+            try {
+                for (int i = 0; i < INTERVALS.length; i++) {
+                    if (rings[i] == null) {
+                        rings[i] = new Ring(capacities[i]);
+                    }
+                    rings[i].add(tradedAtMillis / INTERVALS[i].millis, price, quantity);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        List<Candle> latest(Interval interval, int limit) {
+            List<Candle> result = new ArrayList<>(Math.min(limit, 64));
+            lock.lock();
+            try {
+                Ring ring = rings[interval.ordinal()];
+                if (ring != null) {
+                    ring.latest(interval, limit, result);
+                }
+            } finally {
+                lock.unlock();
+            }
+            Collections.reverse(result);
+            return result;
+        }
+    }
+    
+    /**
+     * The bars of the last capacity buckets of one interval, held as parallel arrays
+     * A bar's slot is its bucket number modulo the array length. The arrays start small and double
+     * (up to capacity) only when a new bar would overwrite one that is still within reach, so a
+     * symbol that trades rarely, or a long interval, never holds the full capacity.
+     */
+    private static final class Ring {
+        
+        private final int capacity;
+        private long[] bucket;     // bucket number (start / interval length), -1 when empty
+        private long[] open;
+        private long[] high;
+        private long[] low;
+        private long[] close;
+        private long[] volume;
+        private int[] trades;
+        private long latestBucket = -1;
+        
+        Ring(int capacity) {
+            this.capacity = capacity;
+            allocate(Math.min(capacity, INITIAL_RING_SIZE));
+        }
+        
+        private void allocate(int length) {
+            bucket = new long[length];
+            open = new long[length];
+            high = new long[length];
+            low = new long[length];
+            close = new long[length];
+            volume = new long[length];
+            trades = new int[length];
+            Arrays.fill(bucket, -1);
+        }
+        
+        void add(long number, long price, int quantity) {
+            long newest = Math.max(latestBucket, number);
+            long oldestKept = newest - capacity + 1;
+            if (number < oldestKept) {
+                return;  // older than the ring reaches back, dropped
+            }
+            int slot = (int) (number % bucket.length);
+            while (bucket[slot] != number && bucket[slot] >= oldestKept) {
+                // The slot holds another bar that must be kept: make room (never at full capacity,
+                // where two buckets less than capacity apart cannot share a slot)
+                grow(oldestKept);
+                slot = (int) (number % bucket.length);
+            }
+            
+            if (bucket[slot] == number) {
+                high[slot] = Math.max(high[slot], price);
+                low[slot] = Math.min(low[slot], price);
+                close[slot] = price;  // commit order: a late trade of this bar becomes its close
+                volume[slot] += quantity;
+                trades[slot]++;
+            } else {
+                bucket[slot] = number;
+                open[slot] = price;
+                high[slot] = price;
+                low[slot] = price;
+                close[slot] = price;
+                volume[slot] = quantity;
+                trades[slot] = 1;
+                latestBucket = newest;
+            }
+        }
+        
+        // Double the arrays (capped at capacity) and move the bars still within reach
+        private void grow(long oldestKept) {
+            long[] oldBucket = bucket;
+            long[] oldOpen = open;
+            long[] oldHigh = high;
+            long[] oldLow = low;
+            long[] oldClose = close;
+            long[] oldVolume = volume;
+            int[] oldTrades = trades;
+            allocate((int) Math.min((long) oldBucket.length * 2, capacity));
+            for (int from = 0; from < oldBucket.length; from++) {
+                if (oldBucket[from] >= oldestKept) {
+                    int to = (int) (oldBucket[from] % bucket.length);
+                    bucket[to] = oldBucket[from];
+                    open[to] = oldOpen[from];
+                    high[to] = oldHigh[from];
+                    low[to] = oldLow[from];
+                    close[to] = oldClose[from];
+                    volume[to] = oldVolume[from];
+                    trades[to] = oldTrades[from];
+                }
+            }
+        }
+        
+        void latest(Interval interval, int limit, List<Candle> result) {
+            long newest = latestBucket;
+            // Walk back over the last `limit` buckets of time (limit <= capacity, and every bar within reach is kept)
+            for (long number = newest; number >= 0 && number > newest - limit; number--) {
+                int slot = (int) (number % bucket.length);
+                if (bucket[slot] == number) {
+                    result.add(new Candle(Instant.ofEpochMilli(number * interval.millis),
+                            Price.toBigDecimal(open[slot]), Price.toBigDecimal(high[slot]),
+                            Price.toBigDecimal(low[slot]), Price.toBigDecimal(close[slot]),
+                            volume[slot], trades[slot]));
+                }
+            }
+        }
+    }
+    
+    /**
+     * One bar: start time, open / high / low / close price, traded quantity and number of trades
+     */
+    public record Candle(Instant start, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close,
+                         long volume, int trades) {}
+}
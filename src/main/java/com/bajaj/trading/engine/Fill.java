@@ -0,0 +1,16 @@
+package com.bajaj.trading.engine;
+
+/**
+ * Fill - One match between an incoming (taker) order and a resting (maker) order
+ * Trades always happen at the maker's price, as on a real exchange.
+ * The price is in fixed-point units (see {@link com.bajaj.trading.model.Price}).
+ */
+public record Fill(
+    long takerOrderId,
+    long makerOrderId,
+    String makerUserId,
+    long price,
+    int quantity,
+    int takerRemaining,
+    int makerRemaining
+) {}
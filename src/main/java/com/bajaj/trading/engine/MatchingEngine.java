@@ -0,0 +1,250 @@
+package com.bajaj.trading.engine;
+
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Price;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matching Engine - Owns one in-memory OrderBook per symbol
+ * Books for different symbols match independently; each book is matched by one thread at a time.
+ * 
+ * The books change as orders are placed, inside the order's database transaction. Every change
+ * made inside a transaction is recorded, and if the transaction rolls back the changes are undone
+ * newest first: the incoming order leaves the book, the makers it consumed get their quantity back,
+ * and orders that were cancelled, modified or pulled out by a trigger are put back.
+ */
+@Component
+@Slf4j
+public class MatchingEngine {
+    
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+    
+    /**
+     * Submit a persisted LIMIT order to its book
+     * Returns the fills generated (empty if the order simply rests)
+     */
+    public List<Fill> submit(Order order) {
+        BookOrder bookOrder = toBookOrder(order);
+        
+        OrderBook book = getBook(order.getSymbol());
+        List<Fill> fills = new ArrayList<>(2);
+        List<BookOrder> makers = new ArrayList<>(2);
+        book.lock.lock();
+        try {
+            book.match(bookOrder, fills, makers);
+        } finally {
+            book.lock.unlock();
+        }
+        undoOnRollback(book, () -> unmatch(book, bookOrder, fills, makers));
+        
+        log.debug("Order {} matched {} time(s), {} left resting", 
+                order.getOrderId(), fills.size(), bookOrder.getRemainingQuantity());
+        return fills;
+    }
+    
+    /**
+     * Put an open LIMIT order back in its book without matching (journal replay)
+     */
+    public void restore(Order order) {
+        OrderBook book = getBook(order.getSymbol());
+        book.lock.lock();
+        try {
+            book.rest(toBookOrder(order));
+        } finally {
+            book.lock.unlock();
+        }
+    }
+    
+    /**
+     * Take an open LIMIT order out of its book
+     * Returns the quantity it still had resting, or -1 when it is no longer in the book
+     * (filled, or triggered and about to execute).
+     */
+    public int cancel(Order order) {
+        OrderBook book = getBook(order.getSymbol());
+        book.lock.lock();
+        try {
+            BookOrder removed = book.remove(order.getOrderId());
+            if (removed == null) {
+                return -1;
+            }
+            undoOnRollback(book, () -> book.reinstate(removed));
+            return removed.getRemainingQuantity();
+        } finally {
+            book.lock.unlock();
+        }
+    }
+    
+    /**
+     * Change the price and / or total quantity of an open LIMIT order
+     * The check sees the quantity resting now and the quantity that would rest after the change,
+     * and may throw to leave the order untouched. Lowering only the quantity keeps the order's
+     * place in its level; any other change re-enters it at the back and matches it like a new
+     * order. Returns the fills, or null when the order is no longer in the book.
+     */
+    public List<Fill> modify(Order order, long price, int quantity, AmendCheck check) {
+        OrderBook book = getBook(order.getSymbol());
+        List<Fill> fills = new ArrayList<>(2);
+        List<BookOrder> makers = new ArrayList<>(2);
+        book.lock.lock();
+        try {
+            BookOrder current = book.find(order.getOrderId());
+            if (current == null) {
+                return null;
+            }
+            int filled = order.getQuantity() - current.getRemainingQuantity();
+            if (quantity <= filled) {
+                throw new IllegalArgumentException("Quantity must be more than the " + filled + " already filled");
+            }
+            int remaining = quantity - filled;
+            check.check(current.getRemainingQuantity(), remaining);
+            
+            if (price == current.getPrice() && remaining <= current.getRemainingQuantity()) {
+                int reduction = current.getRemainingQuantity() - remaining;
+                book.reduce(current, reduction);
+                undoOnRollback(book, () -> book.giveBack(current, reduction));
+            } else {
+                book.remove(order.getOrderId());
+                BookOrder amended = new BookOrder(order.getOrderId(), order.getUserId(), order.getOrderType(),
+                        price, remaining);
+                book.match(amended, fills, makers);
+                undoOnRollback(book, () -> {
+                    unmatch(book, amended, fills, makers);
+                    book.reinstate(current);
+                });
+            }
+        } finally {
+            book.lock.unlock();
+        }
+        return fills;
+    }
+    
+    /**
+     * Pull every resting order crossed by a new market price out of the symbol's book
+     * The caller executes them; they are no longer in the book once returned.
+     */
+    public List<BookOrder> trigger(String symbol, BigDecimal marketPrice) {
+        OrderBook book = books.get(symbol);
+        if (book == null) {
+            return List.of();
+        }
+        
+        long marketUnits = Price.toUnits(marketPrice);
+        List<BookOrder> triggered = new ArrayList<>();
+        book.lock.lock();
+        try {
+            book.sweep(marketUnits, triggered);
+        } finally {
+            book.lock.unlock();
+        }
+        if (!triggered.isEmpty()) {
+            undoOnRollback(book, () -> triggered.forEach(book::reinstate));
+        }
+        return triggered;
+    }
+    
+    /**
+     * Put a triggered order back in its book if the current transaction (the one executing it) rolls back
+     */
+    public void reinstateOnRollback(String symbol, BookOrder order) {
+        OrderBook book = getBook(symbol);
+        undoOnRollback(book, () -> book.reinstate(order));
+    }
+    
+    /**
+     * Open LIMIT orders resting in all books (for metrics; not a consistent snapshot across books)
+     */
+    public int getRestingOrderCount() {
+        int count = 0;
+        for (OrderBook book : books.values()) {
+            count += book.getRestingOrderCount();
+        }
+        return count;
+    }
+    
+    public OrderBook getBook(String symbol) {
+        return books.computeIfAbsent(symbol, OrderBook::new);
+    }
+    
+    // Reverse of a match: the incoming order leaves the book, its makers get their quantity back (last first)
+    private static void unmatch(OrderBook book, BookOrder incoming, List<Fill> fills, List<BookOrder> makers) {
+        book.withdraw(incoming);
+        for (int i = fills.size() - 1; i >= 0; i--) {
+            book.giveBack(makers.get(i), fills.get(i).quantity());
+        }
+    }
+    
+    // Record how to undo a book change, if it was made inside a transaction
+    private void undoOnRollback(OrderBook book, Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        UndoLog undoLog = (UndoLog) TransactionSynchronizationManager.getResource(this);
+        if (undoLog == null) {
+            undoLog = new UndoLog(this);
+            TransactionSynchronizationManager.bindResource(this, undoLog);
+            TransactionSynchronizationManager.registerSynchronization(undoLog);
+        }
+        undoLog.books.add(book);
+        undoLog.undos.add(undo);
+    }
+    
+    private static BookOrder toBookOrder(Order order) {
+        return new BookOrder(
+            order.getOrderId(),
+            order.getUserId(),
+            order.getOrderType(),
+            Price.toUnits(order.getPrice()),
+            order.getQuantity() - order.getFilledQuantity()
+        );
+    }
+    
+    /**
+     * Book changes of one transaction, undone newest first if it rolls back
+     */
+    private static final class UndoLog implements TransactionSynchronization {
+        
+        private final Object key;
+        private final List<OrderBook> books = new ArrayList<>();
+        private final List<Runnable> undos = new ArrayList<>();
+        
+        UndoLog(Object key) {
+            this.key = key;
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            if (status != STATUS_ROLLED_BACK) {
+                return;
+            }
+            for (int i = undos.size() - 1; i >= 0; i--) {
+                OrderBook book = books.get(i);
+                book.lock.lock();
+                try {
+                    undos.get(i).run();
+                } finally {
+                    book.lock.unlock();
+                }
+            }
+            log.warn("Transaction rolled back: undid {} order book change(s)", undos.size());
+        }
+    }
+    
+    /**
+     * Last word on an order modification, taken under the book lock (throw to refuse it)
+     */
+    @FunctionalInterface
+    public interface AmendCheck {
+        void check(int restingQuantity, int newRestingQuantity);
+    }
+}
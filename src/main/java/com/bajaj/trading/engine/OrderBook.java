@@ -0,0 +1,252 @@
+package com.bajaj.trading.engine;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * OrderBook - Bids and asks for a single symbol with price-time priority
+ * 
+ * Bids are sorted highest price first, asks lowest price first.
+ * Within a price level, the order that arrived first is filled first.
+ * Prices are fixed-point long units, so comparisons are plain long compares.
+ * Every resting order is also indexed by id, so cancel and modify find it in O(1).
+ * 
+ * NOT thread-safe: {@link MatchingEngine} serializes access per symbol.
+ */
+public class OrderBook {
+    
+    // Held by MatchingEngine around every access (a lock, not a monitor, so virtual threads don't pin)
+    final ReentrantLock lock = new ReentrantLock();
+    
+    private final String symbol;
+    private final TreeMap<Long, PriceLevel> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final TreeMap<Long, PriceLevel> asks = new TreeMap<>();
+    private final Map<Long, BookOrder> resting = new HashMap<>();
+    private volatile int restingOrders;  // written under the lock, read by metrics without it
+    
+    public OrderBook(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    /**
+     * Match an incoming LIMIT order against the opposite side of the book
+     * Every match is appended to fills; any unfilled quantity is left resting.
+     */
+    public void match(BookOrder incoming, List<Fill> fills) {
+        match(incoming, fills, null);
+    }
+    
+    /**
+     * Same as {@link #match(BookOrder, List)}, also appending the maker of each fill to makers
+     */
+    void match(BookOrder incoming, List<Fill> fills, List<BookOrder> makers) {
+        TreeMap<Long, PriceLevel> opposite = incoming.isBuy() ? asks : bids;
+        
+        while (incoming.getRemainingQuantity() > 0 && !opposite.isEmpty()) {
+            Map.Entry<Long, PriceLevel> best = opposite.firstEntry();
+            if (!crosses(incoming, best.getKey())) {
+                break;
+            }
+            
+            PriceLevel level = best.getValue();
+            while (incoming.getRemainingQuantity() > 0 && !level.isEmpty()) {
+                BookOrder maker = level.head;
+                int quantity = Math.min(incoming.getRemainingQuantity(), maker.getRemainingQuantity());
+                
+                incoming.reduce(quantity);
+                maker.reduce(quantity);
+                level.totalQuantity -= quantity;
+                
+                fills.add(new Fill(
+                    incoming.getOrderId(),
+                    maker.getOrderId(),
+                    maker.getUserId(),
+                    level.price,
+                    quantity,
+                    incoming.getRemainingQuantity(),
+                    maker.getRemainingQuantity()
+                ));
+                if (makers != null) {
+                    makers.add(maker);
+                }
+                
+                if (maker.getRemainingQuantity() == 0) {
+                    level.remove(maker);
+                    resting.remove(maker.getOrderId());
+                    restingOrders--;
+                }
+            }
+            
+            if (level.isEmpty()) {
+                opposite.pollFirstEntry();
+            }
+        }
+        
+        if (incoming.getRemainingQuantity() > 0) {
+            rest(incoming);
+        }
+    }
+    
+    /**
+     * Add an order to its side of the book without matching
+     */
+    public void rest(BookOrder order) {
+        TreeMap<Long, PriceLevel> side = order.isBuy() ? bids : asks;
+        side.computeIfAbsent(order.getPrice(), PriceLevel::new).append(order);
+        resting.put(order.getOrderId(), order);
+        restingOrders++;
+    }
+    
+    /**
+     * The resting order with this id, or null when it is not in the book
+     */
+    public BookOrder find(long orderId) {
+        return resting.get(orderId);
+    }
+    
+    /**
+     * Take a resting order out of the book (null when it is not in the book)
+     */
+    public BookOrder remove(long orderId) {
+        BookOrder order = resting.remove(orderId);
+        if (order == null) {
+            return null;
+        }
+        PriceLevel level = order.level;
+        level.remove(order);
+        if (level.isEmpty()) {
+            (order.isBuy() ? bids : asks).remove(level.price);
+        }
+        restingOrders--;
+        return order;
+    }
+    
+    /**
+     * Lower a resting order's quantity in place; it keeps its time priority
+     */
+    public void reduce(BookOrder order, int quantity) {
+        order.reduce(quantity);
+        order.level.totalQuantity -= quantity;
+    }
+    
+    /**
+     * Undo a match against a resting order by giving it its quantity back
+     * Still resting: it grows in place. Left the book filled: it returns to the front of its level,
+     * where it was matched from. Left the book otherwise (cancelled, triggered): nothing, since its
+     * owner's order still holds that quantity.
+     */
+    void giveBack(BookOrder order, int quantity) {
+        BookOrder current = resting.get(order.getOrderId());
+        if (current != null) {
+            current.reduce(-quantity);
+            current.level.totalQuantity += quantity;
+        } else if (order.getRemainingQuantity() == 0) {
+            order.reduce(-quantity);
+            (order.isBuy() ? bids : asks).computeIfAbsent(order.getPrice(), PriceLevel::new).prepend(order);
+            resting.put(order.getOrderId(), order);
+            restingOrders++;
+        }
+    }
+    
+    /**
+     * Put an order taken out of the book back at the end of its level, unless it is resting again
+     */
+    void reinstate(BookOrder order) {
+        if (!resting.containsKey(order.getOrderId()) && order.getRemainingQuantity() > 0) {
+            rest(order);
+        }
+    }
+    
+    /**
+     * Take this exact order out of the book if it is still resting
+     */
+    void withdraw(BookOrder order) {
+        if (resting.get(order.getOrderId()) == order) {
+            remove(order.getOrderId());
+        }
+    }
+    
+    /**
+     * Remove every resting order that the market price has crossed
+     * BUY orders priced at or above the market and SELL orders at or below it are
+     * appended to triggered in price-time priority. Only crossing levels are touched.
+     */
+    public void sweep(long marketPrice, List<BookOrder> triggered) {
+        while (!bids.isEmpty() && bids.firstKey() >= marketPrice) {
+            drain(bids.pollFirstEntry().getValue(), triggered);
+        }
+        while (!asks.isEmpty() && asks.firstKey() <= marketPrice) {
+            drain(asks.pollFirstEntry().getValue(), triggered);
+        }
+    }
+    
+    private void drain(PriceLevel level, List<BookOrder> out) {
+        while (!level.isEmpty()) {
+            BookOrder order = level.head;
+            level.remove(order);
+            resting.remove(order.getOrderId());
+            restingOrders--;
+            out.add(order);
+        }
+    }
+    
+    public Long getBestBid() {
+        return bids.isEmpty() ? null : bids.firstKey();
+    }
+    
+    public Long getBestAsk() {
+        return asks.isEmpty() ? null : asks.firstKey();
+    }
+    
+    public int getRestingOrderCount() {
+        return restingOrders;
+    }
+    
+    public boolean isEmpty() {
+        return bids.isEmpty() && asks.isEmpty();
+    }
+    
+    private static boolean crosses(BookOrder incoming, long restingPrice) {
+        return incoming.isBuy() ? incoming.getPrice() >= restingPrice : incoming.getPrice() <= restingPrice;
+    }
+}
+
+/**
+ * INTERVIEW EXPLANATION:
+ * 
+ * Q: What is price-time priority?
+ * A: The rule every exchange uses to decide who trades first
+ *    1. Better price wins (highest bid, lowest ask)
+ *    2. At the same price, whoever came first wins (FIFO)
+ * 
+ * Q: Why a TreeMap of price levels?
+ * A: TreeMap keeps prices sorted, so the best price is always firstEntry()
+ *    Finding / adding a level is O(log L) where L = number of distinct prices
+ *    That is tiny compared to the number of orders
+ * 
+ * Q: Why a linked list inside each level instead of an ArrayList?
+ * A: Removing the head (a full fill) or any order in the middle is O(1)
+ *    ArrayList.remove(0) would shift every other order
+ * 
+ * Q: How does a price tick trigger LIMIT orders?
+ * A: The book is already sorted by limit price, so it doubles as the trigger index
+ *    LTP drops to 2390 → pop bid levels from the top while price >= 2390, then stop
+ *    Orders further away from the market are never looked at
+ * 
+ * Q: At what price does a match happen?
+ * A: At the RESTING order's price
+ *    Example: SELL 10 @ 100 is resting, BUY 10 @ 105 arrives
+ *    → Trade happens at 100 (the buyer gets price improvement)
+ * 
+ * Q: How is cancelling an order in the middle of a level O(1)?
+ * A: A HashMap from order id to its BookOrder, which knows its level and neighbours
+ *    Unlinking it is a few pointer writes; only a level left empty costs a TreeMap removal
+ */
@@ -0,0 +1,308 @@
+package com.bajaj.trading.engine;
+
+import com.bajaj.trading.cache.Quote;
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Price;
+import com.bajaj.trading.model.Trade;
+import com.bajaj.trading.repository.TradeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.bajaj.trading.engine.TransactionHooks.afterCommit;
+
+/**
+ * P&L Engine - Tax lots per holding and realized / unrealized P&L, updated on every fill
+ * 
+ * - BUY adds a lot (quantity @ price) to the back of the symbol's queue
+ * - SELL consumes lots from the front (FIFO) and books (sell price - lot price) x quantity as realized
+ * - trading.pnl.cost-basis=AVERAGE pools all lots into one at the running average cost instead
+ * - Unrealized = quantity x latest price - remaining cost, computed when read
+ * 
+ * Lots live in per-symbol ring buffers of primitive longs: a fill touches a few array slots and
+ * allocates nothing unless the ring has to grow. Realized P&L survives closing the position.
+ * 
+ * A user's lots are rebuilt once, on first access, by replaying their trades in id order; after
+ * that only new fills are applied (after their transaction commits). Fills whose trade was
+ * already part of the replay are recognised by trade id and skipped.
+ */
+@Component
+@Slf4j
+public class PnlEngine {
+    
+    /**
+     * How the cost of sold shares is chosen
+     */
+    public enum CostBasis {
+        FIFO,       // oldest lots first
+        AVERAGE     // running average cost of everything held
+    }
+    
+    private static final int INITIAL_LOTS = 4;
+    
+    private final TradeRepository tradeRepository;
+    private final QuoteCache quoteCache;
+    private final CostBasis costBasis;
+    
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    
+    public PnlEngine(TradeRepository tradeRepository, QuoteCache quoteCache,
+                     @Value("${trading.pnl.cost-basis:FIFO}") CostBasis costBasis) {
+        this.tradeRepository = tradeRepository;
+        this.quoteCache = quoteCache;
+        this.costBasis = costBasis;
+    }
+    
+    /**
+     * Apply a trade to its owner's lots once the surrounding transaction commits
+     */
+    public void onTrade(Trade trade) {
+        afterCommit(() -> account(trade.getUserId()).apply(trade));
+    }
+    
+    /**
+     * Realized and unrealized P&L of every symbol the user holds or has traded
+     */
+    public PnlSummary getPnl(String userId) {
+        List<SymbolPnl> symbols = account(userId).snapshot(null);
+        long realized = 0;
+        long unrealized = 0;
+        for (SymbolPnl symbol : symbols) {
+            realized = Math.addExact(realized, Price.toUnits(symbol.realizedPnl()));
+            unrealized = Math.addExact(unrealized, Price.toUnits(symbol.unrealizedPnl()));
+        }
+        return new PnlSummary(costBasis, Price.toBigDecimal(realized), Price.toBigDecimal(unrealized),
+                Price.toBigDecimal(Math.addExact(realized, unrealized)), symbols);
+    }
+    
+    public Optional<SymbolPnl> getPnl(String userId, String symbol) {
+        return account(userId).snapshot(symbol).stream().findFirst();
+    }
+    
+    public CostBasis getCostBasis() {
+        return costBasis;
+    }
+    
+    /**
+     * The user's account, replayed on first access
+     * As in PortfolioValuationEngine, the replay's JDBC runs outside computeIfAbsent: the new
+     * account is published locked, and whoever finds it waits on its lock until it is loaded.
+     */
+    private Account account(String userId) {
+        Account account = accounts.get(userId);
+        if (account != null) {
+            return account.loaded ? account : awaitLoad(userId, account);
+        }
+        
+        Account created = new Account();
+        created.lock.lock();
+        try {
+            Account existing = accounts.putIfAbsent(userId, created);
+            if (existing != null) {
+                return awaitLoad(userId, existing);
+            }
+            try {
+                load(userId, created);
+            } catch (RuntimeException e) {
+                accounts.remove(userId, created);
+                throw e;
+            }
+            return created;
+        } finally {
+            created.lock.unlock();
+        }
+    }
+    
+    private Account awaitLoad(String userId, Account account) {
+        account.lock.lock();
+        account.lock.unlock();
+        return account.loaded ? account : account(userId);  // the replay failed: try again
+    }
+    
+    private void load(String userId, Account account) {
+        List<Trade> trades = tradeRepository.findByUserIdOrderByTradeIdAsc(userId);
+        for (Trade trade : trades) {
+            account.apply(trade);
+        }
+        account.loaded = true;
+        log.info("Replayed {} trade(s) of {} into P&L engine", trades.size(), userId);
+    }
+    
+    private long markPrice(String symbol, long fallback) {
+        return quoteCache.get(symbol).map(Quote::lastTradedPrice).map(Price::toUnits).orElse(fallback);
+    }
+    
+    /**
+     * One user's positions; fills and reads are serialized on the account
+     */
+    private final class Account {
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean loaded;   // trades replayed (the lock is held until then)
+        private final Map<String, Position> positions = new TreeMap<>();
+        // Highest trade id applied so far; trades are created on the user's lane, so ids only grow
+        private long lastTradeId;
+        
+        void apply(Trade trade) {
+            lock.lock();
+            try {
+                Long tradeId = trade.getTradeId();
+                if (tradeId != null) {
+                    if (tradeId <= lastTradeId) {
+                        return;  // already part of the replay
+                    }
+                    lastTradeId = tradeId;
+                }
+                Position position = positions.computeIfAbsent(trade.getSymbol(), symbol -> new Position());
+                long price = Price.toUnits(trade.getExecutedPrice());
+                if (trade.getTradeType() == Order.OrderType.BUY) {
+                    position.buy(trade.getQuantity(), price);
+                } else {
+                    position.sell(trade.getQuantity(), price);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        List<SymbolPnl> snapshot(String onlySymbol) {
+            lock.lock();
+            try {
+                List<SymbolPnl> result = new ArrayList<>();
+                for (Map.Entry<String, Position> entry : positions.entrySet()) {
+                    if (onlySymbol == null || onlySymbol.equals(entry.getKey())) {
+                        result.add(entry.getValue().toPnl(entry.getKey()));
+                    }
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Open lots of one symbol as a ring of (quantity, price) pairs, plus running totals
+     * In AVERAGE mode the ring holds at most one lot, at the average cost.
+     */
+    private final class Position {
+        
+        private long[] lotQuantity = new long[INITIAL_LOTS];
+        private long[] lotPrice = new long[INITIAL_LOTS];
+        private int head;
+        private int size;
+        private long quantity;
+        private long cost;        // sum of lot quantity x lot price
+        private long realized;
+        
+        void buy(long buyQuantity, long price) {
+            quantity = Math.addExact(quantity, buyQuantity);
+            cost = Math.addExact(cost, Price.multiply(price, buyQuantity));
+            if (costBasis == CostBasis.AVERAGE) {
+                head = 0;
+                size = 1;
+                lotQuantity[0] = quantity;
+                lotPrice[0] = Price.divideHalfUp(cost, quantity);
+                return;
+            }
+            
+            int last = (head + size - 1) & (lotPrice.length - 1);
+            if (size > 0 && lotPrice[last] == price) {
+                lotQuantity[last] += buyQuantity;  // same price as the newest lot: extend it
+                return;
+            }
+            if (size == lotPrice.length) {
+                grow();
+            }
+            int tail = (head + size) & (lotPrice.length - 1);
+            lotQuantity[tail] = buyQuantity;
+            lotPrice[tail] = price;
+            size++;
+        }
+        
+        void sell(long sellQuantity, long price) {
+            long toSell = Math.min(sellQuantity, quantity);  // never more than is held
+            if (toSell == 0) {
+                return;
+            }
+            if (costBasis == CostBasis.AVERAGE) {
+                long soldCost = toSell == quantity ? cost : Price.divideHalfUp(Math.multiplyExact(cost, toSell), quantity);
+                realized = Math.addExact(realized, Price.multiply(price, toSell) - soldCost);
+                cost -= soldCost;
+                quantity -= toSell;
+                lotQuantity[0] = quantity;
+                size = quantity == 0 ? 0 : 1;
+                return;
+            }
+            
+            quantity -= toSell;
+            while (toSell > 0) {
+                long take = Math.min(toSell, lotQuantity[head]);
+                long lotCost = Price.multiply(lotPrice[head], take);
+                realized = Math.addExact(realized, Price.multiply(price, take) - lotCost);
+                cost -= lotCost;
+                toSell -= take;
+                lotQuantity[head] -= take;
+                if (lotQuantity[head] == 0) {
+                    head = (head + 1) & (lotPrice.length - 1);
+                    size--;
+                }
+            }
+        }
+        
+        // Capacity stays a power of two so wrapping is a mask
+        private void grow() {
+            long[] quantities = new long[lotPrice.length * 2];
+            long[] prices = new long[lotPrice.length * 2];
+            for (int i = 0; i < size; i++) {
+                int from = (head + i) & (lotPrice.length - 1);
+                quantities[i] = lotQuantity[from];
+                prices[i] = lotPrice[from];
+            }
+            lotQuantity = quantities;
+            lotPrice = prices;
+            head = 0;
+        }
+        
+        SymbolPnl toPnl(String symbol) {
+            long averageCost = quantity == 0 ? 0 : Price.divideHalfUp(cost, quantity);
+            long mark = quantity == 0 ? 0 : markPrice(symbol, averageCost);
+            long unrealized = Price.multiply(mark, quantity) - cost;
+            Lot[] lots = new Lot[size];
+            for (int i = 0; i < size; i++) {
+                int slot = (head + i) & (lotPrice.length - 1);
+                lots[i] = new Lot(lotQuantity[slot], Price.toBigDecimal(lotPrice[slot]));
+            }
+            return new SymbolPnl(symbol, quantity, Price.toBigDecimal(averageCost), Price.toBigDecimal(mark),
+                    Price.toBigDecimal(realized), Price.toBigDecimal(unrealized), Arrays.asList(lots));
+        }
+    }
+    
+    /**
+     * An open lot: shares still held from one purchase price, oldest first
+     */
+    public record Lot(long quantity, BigDecimal price) {}
+    
+    /**
+     * P&L of one symbol (quantity 0 = position closed, realized P&L kept)
+     */
+    public record SymbolPnl(String symbol, long quantity, BigDecimal averageCost, BigDecimal marketPrice,
+                            BigDecimal realizedPnl, BigDecimal unrealizedPnl, List<Lot> lots) {}
+    
+    /**
+     * A user's P&L across every symbol
+     */
+    public record PnlSummary(CostBasis costBasis, BigDecimal realizedPnl, BigDecimal unrealizedPnl,
+                             BigDecimal totalPnl, List<SymbolPnl> symbols) {}
+}
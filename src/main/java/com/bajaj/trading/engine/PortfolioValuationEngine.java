@@ -0,0 +1,321 @@
+package com.bajaj.trading.engine;
+
+import com.bajaj.trading.cache.Quote;
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.event.PriceChangedEvent;
+import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.model.Price;
+import com.bajaj.trading.repository.PortfolioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.bajaj.trading.engine.TransactionHooks.afterCommit;
+
+/**
+ * Portfolio Valuation Engine - Keeps every holding and every user's total marked to market in memory
+ * 
+ * - A fill updates one holding (quantity / average price) and shifts the user's total by the difference
+ * - A price tick revalues only the holdings in that symbol, again by difference
+ * - Reads return a cached snapshot (rebuilt once after a change): no queries, no writes
+ * 
+ * Values are fixed-point {@link Price} units internally and only become BigDecimal on the way out.
+ * A user's holdings are loaded from the database once, on first access.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioValuationEngine {
+    
+    private final PortfolioRepository portfolioRepository;
+    private final QuoteCache quoteCache;
+    
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<String, Set<Holding>> holdersBySymbol = new ConcurrentHashMap<>();
+    
+    private volatile ValuationListener listener;
+    
+    /**
+     * Receives every change of a watched user's holdings or total (e.g. to stream it to the user)
+     * Called with the account locked, so it must not block.
+     */
+    public interface ValuationListener {
+        
+        boolean isWatching(String userId);
+        
+        void onValuationChanged(ValuationUpdate update);
+    }
+    
+    /**
+     * New state of one holding (quantity 0 = closed) and the user's new total
+     */
+    public record ValuationUpdate(String userId, String symbol, int quantity, BigDecimal averagePrice,
+                                  BigDecimal currentValue, BigDecimal totalValue) {}
+    
+    public void setListener(ValuationListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Current holdings of a user, valued at the latest price
+     */
+    public List<Portfolio> getHoldings(String userId) {
+        return account(userId).snapshot();
+    }
+    
+    public Optional<Portfolio> getHolding(String userId, String symbol) {
+        return getHoldings(userId).stream()
+            .filter(holding -> holding.getSymbol().equals(symbol))
+            .findFirst();
+    }
+    
+    /**
+     * Total market value of a user's holdings (maintained incrementally)
+     */
+    public BigDecimal getTotalValue(String userId) {
+        return Price.toBigDecimal(account(userId).totalValue);
+    }
+    
+    /**
+     * Open holdings across every user loaded into the engine (for metrics)
+     */
+    public int getHoldingCount() {
+        int count = 0;
+        for (Set<Holding> holders : holdersBySymbol.values()) {
+            count += holders.size();
+        }
+        return count;
+    }
+    
+    /**
+     * Record a holding's new state after a fill (quantity 0 = position closed)
+     * Applied after the surrounding transaction commits, so rolled back fills never show up.
+     */
+    public void onHoldingChanged(Long id, String userId, String symbol, int quantity, BigDecimal averagePrice) {
+        afterCommit(() -> account(userId).apply(id, symbol, quantity, averagePrice));
+    }
+    
+    /**
+     * Revalue every holding in the symbol once the new price is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        Set<Holding> holders = holdersBySymbol.get(event.symbol());
+        if (holders == null) {
+            return;
+        }
+        long price = Price.toUnits(event.lastTradedPrice());
+        for (Holding holding : holders) {
+            holding.account.reprice(holding, price);
+        }
+    }
+    
+    /**
+     * The user's account, loaded on first access
+     * Not computeIfAbsent: the load runs JDBC, which must not happen under the map's bin lock (a
+     * monitor, so it would pin a virtual thread and block other users hashing to the same bin).
+     * The new account is published locked instead, and whoever finds it waits on its lock.
+     */
+    private Account account(String userId) {
+        Account account = accounts.get(userId);
+        if (account != null) {
+            return account.loaded ? account : awaitLoad(account);
+        }
+        
+        Account created = new Account(userId);
+        created.lock.lock();
+        try {
+            Account existing = accounts.putIfAbsent(userId, created);
+            if (existing != null) {
+                return awaitLoad(existing);
+            }
+            try {
+                load(created);
+            } catch (RuntimeException e) {
+                accounts.remove(userId, created);
+                throw e;
+            }
+            return created;
+        } finally {
+            created.lock.unlock();
+        }
+    }
+    
+    private Account awaitLoad(Account account) {
+        account.lock.lock();
+        account.lock.unlock();
+        return account.loaded ? account : account(account.userId);  // the load failed: try again
+    }
+    
+    private void load(Account account) {
+        List<Portfolio> rows = portfolioRepository.findByUserId(account.userId);
+        for (Portfolio row : rows) {
+            account.apply(row.getId(), row.getSymbol(), row.getQuantity(), row.getAveragePrice());
+        }
+        account.loaded = true;
+        log.info("Loaded {} holding(s) for {} into valuation engine", rows.size(), account.userId);
+    }
+    
+    private long currentPrice(String symbol, BigDecimal fallback) {
+        return Price.toUnits(quoteCache.get(symbol).map(Quote::lastTradedPrice).orElse(fallback));
+    }
+    
+    /**
+     * One user's holdings and running total; mutations are serialized on the account
+     */
+    private final class Account {
+        
+        private final String userId;
+        private final Map<String, Holding> holdings = new HashMap<>();
+        // Not a monitor: a quote cache miss inside apply() blocks on JDBC, which would pin a virtual thread
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean loaded;   // holdings read from the database (the lock is held until then)
+        private volatile long totalValue;
+        private volatile List<Portfolio> snapshot = List.of();  // null = rebuild on next read
+        
+        private Account(String userId) {
+            this.userId = userId;
+        }
+        
+        void apply(Long id, String symbol, int quantity, BigDecimal averagePrice) {
+            lock.lock();
+            try {
+                applyLocked(id, symbol, quantity, averagePrice);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private void applyLocked(Long id, String symbol, int quantity, BigDecimal averagePrice) {
+            Holding holding = holdings.get(symbol);
+            
+            if (quantity <= 0) {
+                if (holding != null) {
+                    holdings.remove(symbol);
+                    holdersOf(symbol).remove(holding);
+                    totalValue = Math.subtractExact(totalValue, holding.currentValue);
+                    holding.quantity = 0;
+                    holding.currentValue = 0;
+                    publish(holding);
+                }
+                return;
+            }
+            
+            if (holding == null) {
+                holding = new Holding(this, symbol);
+                holding.price = currentPrice(symbol, averagePrice);
+                holdings.put(symbol, holding);
+                holdersOf(symbol).add(holding);
+            }
+            
+            long newValue = Price.multiply(holding.price, quantity);
+            totalValue = Math.addExact(totalValue, newValue - holding.currentValue);
+            holding.id = id;
+            holding.quantity = quantity;
+            holding.averagePrice = averagePrice;
+            holding.currentValue = newValue;
+            publish(holding);
+        }
+        
+        void reprice(Holding holding, long price) {
+            lock.lock();
+            try {
+                if (holdings.get(holding.symbol) != holding) {
+                    return;  // closed while the tick was in flight
+                }
+                long newValue = Price.multiply(price, holding.quantity);
+                totalValue = Math.addExact(totalValue, newValue - holding.currentValue);
+                holding.price = price;
+                holding.currentValue = newValue;
+                publish(holding);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        List<Portfolio> snapshot() {
+            List<Portfolio> current = snapshot;
+            return current != null ? current : rebuild();
+        }
+        
+        private List<Portfolio> rebuild() {
+            lock.lock();
+            try {
+                if (snapshot == null) {
+                    List<Portfolio> rows = new ArrayList<>(holdings.size());
+                    for (Holding holding : holdings.values()) {
+                        rows.add(new Portfolio(holding.id, userId, holding.symbol, holding.quantity,
+                                holding.averagePrice, Price.toBigDecimal(holding.currentValue)));
+                    }
+                    snapshot = List.copyOf(rows);
+                }
+                return snapshot;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        // Ticks can arrive far more often than reads, so the read snapshot is rebuilt lazily
+        private void publish(Holding changed) {
+            snapshot = null;
+            
+            ValuationListener current = listener;
+            if (current != null && current.isWatching(userId)) {
+                current.onValuationChanged(new ValuationUpdate(userId, changed.symbol, changed.quantity,
+                        changed.averagePrice, Price.toBigDecimal(changed.currentValue), Price.toBigDecimal(totalValue)));
+            }
+        }
+    }
+    
+    private Set<Holding> holdersOf(String symbol) {
+        return holdersBySymbol.computeIfAbsent(symbol, s -> ConcurrentHashMap.newKeySet());
+    }
+    
+    /**
+     * Mutable valuation state of one holding, guarded by its account
+     */
+    private static final class Holding {
+        
+        private final Account account;
+        private final String symbol;
+        private Long id;
+        private int quantity;
+        private BigDecimal averagePrice;
+        private long price;
+        private long currentValue;
+        
+        private Holding(Account account, String symbol) {
+            this.account = account;
+            this.symbol = symbol;
+        }
+    }
+}
+
+/**
+ * INTERVIEW EXPLANATION:
+ * 
+ * Q: Why not just recompute the portfolio on every GET?
+ * A: Recompute = load every holding + look up every price + save everything
+ *    Work grows with the number of holdings and it WRITES on a read
+ *    Here the answer is already sitting in memory when the GET arrives
+ * 
+ * Q: What does "incremental" mean here?
+ * A: Only the difference is applied
+ *    TCS moves 3500 → 3510 and you hold 10 → total += 10 × 10 = ₹100
+ *    Holdings in other symbols are not touched at all
+ * 
+ * Q: Why wait for the commit before applying a fill?
+ * A: If the order transaction fails and rolls back, the in-memory
+ *    portfolio must not show shares that were never bought
+ */
@@ -0,0 +1,69 @@
+package com.bajaj.trading.engine;
+
+/**
+ * PriceLevel - All resting orders at one price, in arrival (time priority) order
+ * Implemented as an intrusive doubly linked list so append and removal are O(1)
+ */
+final class PriceLevel {
+    
+    final long price;
+    BookOrder head;
+    BookOrder tail;
+    long totalQuantity;
+    int orderCount;
+    
+    PriceLevel(long price) {
+        this.price = price;
+    }
+    
+    void append(BookOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        totalQuantity += order.getRemainingQuantity();
+        orderCount++;
+    }
+    
+    // Back at the front of the queue (an order whose fill was rolled back)
+    void prepend(BookOrder order) {
+        order.level = this;
+        order.prev = null;
+        order.next = head;
+        if (head == null) {
+            tail = order;
+        } else {
+            head.prev = order;
+        }
+        head = order;
+        totalQuantity += order.getRemainingQuantity();
+        orderCount++;
+    }
+    
+    void remove(BookOrder order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        totalQuantity -= order.getRemainingQuantity();
+        orderCount--;
+        order.level = null;
+        order.prev = null;
+        order.next = null;
+    }
+    
+    boolean isEmpty() {
+        return head == null;
+    }
+}
@@ -0,0 +1,422 @@
+package com.bajaj.trading.engine;
+
+import com.bajaj.trading.cache.Quote;
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.metrics.OrderMetrics;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.model.Price;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.bajaj.trading.engine.TransactionHooks.afterCommit;
+import static com.bajaj.trading.engine.TransactionHooks.afterRollback;
+
+/**
+ * Risk Engine - In-memory pre-trade checks, run before an order waits for its account lane
+ * 
+ * - Price band: a LIMIT price must be within trading.risk.price-band-percent of the last price
+ * - Order notional: quantity x price (limit price, or last price for MARKET) up to a cap
+ * - Buying power: a BUY reserves its notional from the user's buying power
+ * - Position limit: shares held + open BUY quantity + this order, per symbol, up to a cap
+ * 
+ * Reservations are CAS loops on per-account AtomicLongs, so concurrent orders of one user never
+ * over-commit and nothing blocks. A reservation follows its order: fills settle it at the
+ * actual price (a BUY filled below its limit gets the difference back), a rollback releases
+ * it, and whatever a resting order still holds stays reserved until it fills or is cancelled.
+ * Modifying an order reserves or releases only the difference.
+ * SELL proceeds add to buying power when the fill commits.
+ * 
+ * Buying power is a credit line per user, starting at trading.risk.buying-power when the
+ * process starts; there is no cash ledger behind it.
+ */
+@Component
+@Slf4j
+public class RiskEngine {
+    
+    private static final long BASIS_POINTS = 10_000;
+    
+    private final QuoteCache quoteCache;
+    private final PortfolioValuationEngine valuationEngine;
+    private final OrderMetrics orderMetrics;
+    private final boolean enabled;
+    private final long buyingPower;
+    private final long maxOrderNotional;
+    private final long maxPosition;
+    private final BigDecimal priceBandPercent;
+    private final long priceBandBasisPoints;
+    
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    // Reservations of orders that are saved and not yet completely filled, by order id
+    private final Map<Long, Reservation> open = new ConcurrentHashMap<>();
+    
+    public RiskEngine(QuoteCache quoteCache, PortfolioValuationEngine valuationEngine, OrderMetrics orderMetrics,
+                      @Value("${trading.risk.enabled:true}") boolean enabled,
+                      @Value("${trading.risk.buying-power:10000000.00}") BigDecimal buyingPower,
+                      @Value("${trading.risk.max-order-notional:5000000.00}") BigDecimal maxOrderNotional,
+                      @Value("${trading.risk.max-position:100000}") long maxPosition,
+                      @Value("${trading.risk.price-band-percent:20}") BigDecimal priceBandPercent) {
+        this.quoteCache = quoteCache;
+        this.valuationEngine = valuationEngine;
+        this.orderMetrics = orderMetrics;
+        this.enabled = enabled;
+        this.buyingPower = Price.toUnits(buyingPower);
+        this.maxOrderNotional = Price.toUnits(maxOrderNotional);
+        this.maxPosition = maxPosition;
+        this.priceBandPercent = priceBandPercent;
+        this.priceBandBasisPoints = priceBandPercent.movePointRight(2).longValueExact();
+    }
+    
+    /**
+     * Check an order request and reserve what it needs
+     * Throws IllegalArgumentException when a limit is breached. Requests that later validation
+     * rejects anyway (unknown symbol, bad quantity or price) pass through unreserved.
+     */
+    public Reservation reserve(String userId, Order request) {
+        if (!enabled || request.getQuantity() == null || request.getQuantity() <= 0
+                || request.getOrderType() == null || request.getOrderStyle() == null) {
+            return Reservation.NONE;
+        }
+        Optional<Quote> quote = quoteCache.get(request.getSymbol());
+        if (quote.isEmpty()) {
+            return Reservation.NONE;
+        }
+        long market = Price.toUnits(quote.get().lastTradedPrice());
+        int quantity = request.getQuantity();
+        
+        long price = market;
+        if (request.getOrderStyle() == Order.OrderStyle.LIMIT) {
+            BigDecimal limit = request.getPrice();
+            if (limit == null || limit.signum() <= 0 || !Price.isRepresentable(limit)) {
+                return Reservation.NONE;
+            }
+            price = Price.toUnits(limit);
+            checkPriceBand(price, quote.get());
+        }
+        
+        long notional = checkNotional(price, quantity);
+        if (request.getOrderType() == Order.OrderType.SELL) {
+            return Reservation.NONE;  // holdings are checked on the account lane
+        }
+        
+        Account account = account(userId);
+        if (!account.tryDebit(notional)) {
+            reject(OrderMetrics.RejectReason.BUYING_POWER, String.format(
+                    "Insufficient buying power. Available: %s, Required: %s",
+                    Price.toBigDecimal(account.available.get()), Price.toBigDecimal(notional)));
+        }
+        long held = heldQuantity(userId, request.getSymbol());
+        if (!account.pendingBuys(request.getSymbol()).tryAdd(quantity, maxPosition - held)) {
+            account.available.addAndGet(notional);
+            reject(OrderMetrics.RejectReason.POSITION_LIMIT, String.format(
+                    "Position limit of %d shares in %s reached (held %d, open buys %d, order %d)",
+                    maxPosition, request.getSymbol(), held,
+                    account.pendingBuys(request.getSymbol()).get(), quantity));
+        }
+        return new Reservation(account, request.getSymbol(), price, quantity);
+    }
+    
+    /**
+     * Attach a reservation to its saved order
+     * If the transaction rolls back, the reservation is released.
+     */
+    public void track(Order order, Reservation reservation) {
+        if (reservation == Reservation.NONE) {
+            return;
+        }
+        reservation.orderId = order.getOrderId();
+        open.put(order.getOrderId(), reservation);
+        afterRollback(() -> release(reservation));
+    }
+    
+    /**
+     * Give back a reservation that never got attached to an order (the request failed validation)
+     * Attached ones are released by their transaction's rollback instead.
+     */
+    public void cancel(Reservation reservation) {
+        if (reservation != Reservation.NONE && reservation.orderId == null) {
+            release(reservation);
+        }
+    }
+    
+    /**
+     * Re-size an open order's reservation for its new limit price and resting quantity
+     * Runs the price band and notional checks on the new terms, and reserves only the
+     * difference (or gives it back). Fills already matched in the book but not yet settled
+     * stay covered, at the new price. Throws IllegalArgumentException on a breach, changing nothing.
+     * If the transaction rolls back, the old reservation and the difference are restored.
+     */
+    public void amend(Order order, BigDecimal newPrice, int restingQuantity, int newRestingQuantity) {
+        Optional<Quote> quote = enabled ? quoteCache.get(order.getSymbol()) : Optional.empty();
+        if (quote.isEmpty()) {
+            return;
+        }
+        long price = Price.toUnits(newPrice);
+        checkPriceBand(price, quote.get());
+        checkNotional(price, newRestingQuantity);
+        if (order.getOrderType() == Order.OrderType.SELL) {
+            return;
+        }
+        
+        Account account = account(order.getUserId());
+        Reservation current = open.get(order.getOrderId());
+        long reserved = current == null ? 0 : current.remaining();
+        long unsettled = Math.max(0, reserved - restingQuantity);
+        long quantity = unsettled + newRestingQuantity;
+        long cost = Price.multiply(price, quantity) - (current == null ? 0 : Price.multiply(current.price, reserved));
+        if (cost > 0 && !account.tryDebit(cost)) {
+            reject(OrderMetrics.RejectReason.BUYING_POWER, String.format(
+                    "Insufficient buying power. Available: %s, Required: %s",
+                    Price.toBigDecimal(account.available.get()), Price.toBigDecimal(cost)));
+        }
+        Counter pendingBuys = account.pendingBuys(order.getSymbol());
+        long held = heldQuantity(order.getUserId(), order.getSymbol());
+        long added = quantity - reserved;
+        if (added <= 0) {
+            pendingBuys.addAndGet(added);
+        } else if (!pendingBuys.tryAdd(added, maxPosition - held)) {
+            account.available.addAndGet(Math.max(cost, 0));
+            reject(OrderMetrics.RejectReason.POSITION_LIMIT, String.format(
+                    "Position limit of %d shares in %s reached (held %d, open buys %d, order %d)",
+                    maxPosition, order.getSymbol(), held, pendingBuys.get(), newRestingQuantity));
+        }
+        if (cost < 0) {
+            account.available.addAndGet(-cost);
+        }
+        
+        Reservation replacement = new Reservation(account, order.getSymbol(), price, Math.toIntExact(quantity));
+        replacement.orderId = order.getOrderId();
+        if (current != null) {
+            current.take(Integer.MAX_VALUE);   // now held by the replacement
+        }
+        open.put(order.getOrderId(), replacement);
+        afterRollback(() -> {
+            replacement.take(Integer.MAX_VALUE);
+            account.available.addAndGet(cost);
+            pendingBuys.addAndGet(-added);
+            if (current != null) {
+                current.remaining.set(reserved);
+                open.put(order.getOrderId(), current);
+            } else {
+                open.remove(order.getOrderId(), replacement);
+            }
+        });
+    }
+    
+    /**
+     * Release what a cancelled order still has reserved, once the cancel commits
+     * Fills matched before the cancel but settled after it are then paid at their own price.
+     */
+    public void onCancel(Order order) {
+        Long orderId = order.getOrderId();
+        afterCommit(() -> {
+            Reservation reservation = open.get(orderId);
+            if (reservation != null) {
+                release(reservation);
+            }
+        });
+    }
+    
+    /**
+     * Settle a fill (price in Price units) once the surrounding transaction commits
+     */
+    public void onFill(Order order, int quantity, long priceUnits) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> settle(order.getUserId(), order.getOrderId(), order.getSymbol(),
+                order.getOrderType(), quantity, priceUnits));
+    }
+    
+    private void settle(String userId, Long orderId, String symbol, Order.OrderType type, int quantity, long price) {
+        Account account = account(userId);
+        if (type == Order.OrderType.SELL) {
+            account.available.addAndGet(Price.multiply(price, quantity));
+            return;
+        }
+        
+        Reservation reservation = orderId == null ? null : open.get(orderId);
+        int covered = reservation == null ? 0 : reservation.take(quantity);
+        if (covered > 0) {
+            // Reserved at the limit (or last) price; the fill may have been cheaper
+            account.available.addAndGet(Price.multiply(reservation.price - price, covered));
+            account.pendingBuys(symbol).addAndGet(-covered);
+            if (reservation.remaining() == 0) {
+                open.remove(orderId, reservation);
+            }
+        }
+        if (quantity > covered) {
+            // Placed before this process started (or with risk checks off): nothing was reserved
+            account.available.addAndGet(-Price.multiply(price, quantity - covered));
+        }
+    }
+    
+    private void release(Reservation reservation) {
+        int quantity = reservation.take(Integer.MAX_VALUE);
+        if (quantity > 0) {
+            reservation.account.available.addAndGet(Price.multiply(reservation.price, quantity));
+            reservation.account.pendingBuys(reservation.symbol).addAndGet(-quantity);
+        }
+        if (reservation.orderId != null) {
+            open.remove(reservation.orderId, reservation);
+        }
+    }
+    
+    /**
+     * Buying power and open BUY quantities of a user, with the limits they are checked against
+     */
+    public AccountRisk getAccountRisk(String userId) {
+        Account account = account(userId);
+        Map<String, Long> openBuys = new TreeMap<>();
+        account.pendingBuys.forEach((symbol, pending) -> {
+            if (pending.get() != 0) {
+                openBuys.put(symbol, pending.get());
+            }
+        });
+        return new AccountRisk(enabled, Price.toBigDecimal(account.available.get()), openBuys,
+                Price.toBigDecimal(maxOrderNotional), maxPosition, priceBandPercent);
+    }
+    
+    // |price - market| / market > band, without dividing
+    private void checkPriceBand(long price, Quote quote) {
+        long market = Price.toUnits(quote.lastTradedPrice());
+        if (Math.abs(price - market) * BASIS_POINTS > market * priceBandBasisPoints) {
+            reject(OrderMetrics.RejectReason.PRICE_BAND, String.format(
+                    "Price %s is outside the %s%% band around the last price %s", Price.toBigDecimal(price),
+                    priceBandPercent.toPlainString(), quote.lastTradedPrice()));
+        }
+    }
+    
+    private long checkNotional(long price, int quantity) {
+        long notional;
+        try {
+            notional = Price.multiply(price, quantity);
+        } catch (ArithmeticException e) {
+            notional = Long.MAX_VALUE;
+        }
+        if (notional > maxOrderNotional) {
+            reject(OrderMetrics.RejectReason.ORDER_NOTIONAL, String.format(
+                    "Order value %s exceeds the per-order limit %s",
+                    Price.toBigDecimal(notional), Price.toBigDecimal(maxOrderNotional)));
+        }
+        return notional;
+    }
+    
+    private long heldQuantity(String userId, String symbol) {
+        return valuationEngine.getHolding(userId, symbol).map(Portfolio::getQuantity).orElse(0);
+    }
+    
+    private Account account(String userId) {
+        Account account = accounts.get(userId);
+        if (account != null) {
+            return account;
+        }
+        return accounts.computeIfAbsent(userId, id -> new Account(buyingPower));
+    }
+    
+    private void reject(OrderMetrics.RejectReason reason, String message) {
+        orderMetrics.rejected(reason);
+        throw new IllegalArgumentException(message);
+    }
+    
+    /**
+     * One user's buying power and open BUY quantity per symbol
+     */
+    private static final class Account {
+        
+        private final AtomicLong available;
+        private final Map<String, Counter> pendingBuys = new ConcurrentHashMap<>();
+        
+        Account(long buyingPower) {
+            available = new AtomicLong(buyingPower);
+        }
+        
+        boolean tryDebit(long amount) {
+            long current;
+            do {
+                current = available.get();
+                if (current < amount) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - amount));
+            return true;
+        }
+        
+        Counter pendingBuys(String symbol) {
+            Counter counter = pendingBuys.get(symbol);
+            return counter != null ? counter : pendingBuys.computeIfAbsent(symbol, s -> new Counter());
+        }
+    }
+    
+    /**
+     * An AtomicLong that only grows up to a limit
+     */
+    private static final class Counter extends AtomicLong {
+        
+        boolean tryAdd(long amount, long limit) {
+            long current;
+            do {
+                current = get();
+                if (current + amount > limit) {
+                    return false;
+                }
+            } while (!compareAndSet(current, current + amount));
+            return true;
+        }
+    }
+    
+    /**
+     * What one order holds: quantity x price of buying power and of the symbol's open BUY quantity
+     * The remaining quantity only shrinks, atomically, so a fill and a release never both claim it.
+     */
+    public static final class Reservation {
+        
+        // Orders that reserve nothing (SELLs, rejected requests, risk checks off)
+        public static final Reservation NONE = new Reservation(null, null, 0, 0);
+        
+        private final Account account;
+        private final String symbol;
+        private final long price;
+        private final AtomicLong remaining;
+        private volatile Long orderId;
+        
+        private Reservation(Account account, String symbol, long price, int quantity) {
+            this.account = account;
+            this.symbol = symbol;
+            this.price = price;
+            this.remaining = new AtomicLong(quantity);
+        }
+        
+        // Claim up to quantity of what is left; returns the amount claimed
+        int take(int quantity) {
+            long current;
+            long taken;
+            do {
+                current = remaining.get();
+                taken = Math.min(current, quantity);
+                if (taken == 0) {
+                    return 0;
+                }
+            } while (!remaining.compareAndSet(current, current - taken));
+            return (int) taken;
+        }
+        
+        long remaining() {
+            return remaining.get();
+        }
+    }
+    
+    /**
+     * Risk state of one user
+     */
+    public record AccountRisk(boolean enabled, BigDecimal buyingPower, Map<String, Long> openBuyQuantity,
+                              BigDecimal maxOrderNotional, long maxPosition, BigDecimal priceBandPercent) {}
+}
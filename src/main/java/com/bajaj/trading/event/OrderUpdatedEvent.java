@@ -0,0 +1,18 @@
+package com.bajaj.trading.event;
+
+import com.bajaj.trading.model.Order;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when an order changes status or fills (lastFill* are null when there was no fill)
+ */
+public record OrderUpdatedEvent(String userId, Long orderId, String symbol, Order.OrderType orderType,
+                                Order.OrderStatus status, int quantity, int filledQuantity,
+                                Integer lastFillQuantity, BigDecimal lastFillPrice) {
+    
+    public static OrderUpdatedEvent of(Order order, Integer fillQuantity, BigDecimal fillPrice) {
+        return new OrderUpdatedEvent(order.getUserId(), order.getOrderId(), order.getSymbol(), order.getOrderType(),
+                order.getStatus(), order.getQuantity(), order.getFilledQuantity(), fillQuantity, fillPrice);
+    }
+}
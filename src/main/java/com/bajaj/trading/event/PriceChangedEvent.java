@@ -0,0 +1,8 @@
+package com.bajaj.trading.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published after an instrument's last traded price has been updated
+ */
+public record PriceChangedEvent(String symbol, BigDecimal lastTradedPrice) {}
@@ -0,0 +1,11 @@
+package com.bajaj.trading.exception;
+
+/**
+ * Missing or invalid credentials (mapped to 401 by GlobalExceptionHandler)
+ */
+public class UnauthorizedException extends RuntimeException {
+    
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,111 @@
+package com.bajaj.trading.journal;
+
+import com.bajaj.trading.model.Order;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of journal records
+ * 
+ * Frame:  int length | int crc32c(body) | body
+ * Body:   byte type | long timestamp | fields of the record
+ * 
+ * A length of 0 marks the end of the written part of a segment (segments are zero-filled),
+ * and a frame whose checksum does not match is a torn write from a crash: reading stops there.
+ */
+final class JournalCodec {
+    
+    static final int HEADER_BYTES = 8;
+    static final int MAX_BODY_BYTES = 4096;
+    
+    private static final byte ORDER_ACCEPTED = 1;
+    private static final byte ORDER_FILLED = 2;
+    private static final byte ORDER_CANCELLED = 3;
+    private static final byte ORDER_MODIFIED = 4;
+    
+    private static final Order.OrderType[] ORDER_TYPES = Order.OrderType.values();
+    private static final Order.OrderStyle[] ORDER_STYLES = Order.OrderStyle.values();
+    
+    private JournalCodec() {
+    }
+    
+    /**
+     * Write the body of a record into the buffer (position advanced past it)
+     */
+    static void encodeBody(JournalRecord record, ByteBuffer body) {
+        if (record instanceof JournalRecord.OrderAccepted accepted) {
+            body.put(ORDER_ACCEPTED).putLong(accepted.timestamp());
+            body.putLong(accepted.orderId());
+            putString(body, accepted.userId());
+            putString(body, accepted.symbol());
+            body.put((byte) accepted.orderType().ordinal());
+            body.put((byte) accepted.orderStyle().ordinal());
+            body.putInt(accepted.quantity());
+            body.putLong(accepted.price());
+            putString(body, accepted.clientOrderId() == null ? "" : accepted.clientOrderId());
+        } else if (record instanceof JournalRecord.OrderFilled filled) {
+            body.put(ORDER_FILLED).putLong(filled.timestamp());
+            body.putLong(filled.orderId());
+            body.putLong(filled.tradeId());
+            body.putInt(filled.quantity());
+            body.putLong(filled.price());
+        } else if (record instanceof JournalRecord.OrderCancelled cancelled) {
+            body.put(ORDER_CANCELLED).putLong(cancelled.timestamp());
+            body.putLong(cancelled.orderId());
+        } else if (record instanceof JournalRecord.OrderModified modified) {
+            body.put(ORDER_MODIFIED).putLong(modified.timestamp());
+            body.putLong(modified.orderId());
+            body.putInt(modified.quantity());
+            body.putLong(modified.price());
+        }
+    }
+    
+    /**
+     * Read the body of a record (exactly the bytes between position and limit)
+     */
+    static JournalRecord decodeBody(ByteBuffer body) {
+        byte type = body.get();
+        long timestamp = body.getLong();
+        return switch (type) {
+            case ORDER_ACCEPTED -> new JournalRecord.OrderAccepted(timestamp,
+                    body.getLong(), getString(body), getString(body),
+                    ORDER_TYPES[body.get()], ORDER_STYLES[body.get()],
+                    body.getInt(), body.getLong(), getOptionalString(body));
+            case ORDER_FILLED -> new JournalRecord.OrderFilled(timestamp,
+                    body.getLong(), body.getLong(), body.getInt(), body.getLong());
+            case ORDER_CANCELLED -> new JournalRecord.OrderCancelled(timestamp, body.getLong());
+            case ORDER_MODIFIED -> new JournalRecord.OrderModified(timestamp,
+                    body.getLong(), body.getInt(), body.getLong());
+            default -> throw new IllegalStateException("Unknown journal record type: " + type);
+        };
+    }
+    
+    static int checksum(ByteBuffer body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        return (int) crc.getValue();
+    }
+    
+    private static void putString(ByteBuffer body, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        body.putShort((short) bytes.length);
+        body.put(bytes);
+    }
+    
+    // Trailing field added later: records written before it end without one
+    private static String getOptionalString(ByteBuffer body) {
+        if (!body.hasRemaining()) {
+            return null;
+        }
+        String value = getString(body);
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static String getString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xFFFF];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
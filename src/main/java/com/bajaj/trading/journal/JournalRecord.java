@@ -0,0 +1,80 @@
+package com.bajaj.trading.journal;
+
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Price;
+import com.bajaj.trading.model.Trade;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * One event in the order journal
+ * Prices are fixed-point units (see Price); timestamps are epoch milliseconds.
+ */
+public sealed interface JournalRecord {
+    
+    long timestamp();
+    
+    static OrderAccepted accepted(Order order) {
+        return new OrderAccepted(toEpochMillis(order.getCreatedAt()), order.getOrderId(), order.getUserId(),
+                order.getSymbol(), order.getOrderType(), order.getOrderStyle(), order.getQuantity(),
+                order.getPrice() == null ? OrderAccepted.NO_PRICE : Price.toUnits(order.getPrice()),
+                order.getClientOrderId());
+    }
+    
+    static OrderFilled filled(Trade trade) {
+        // Write-behind trades get their id later; replay assigns one
+        long tradeId = trade.getTradeId() == null ? OrderFilled.NO_TRADE_ID : trade.getTradeId();
+        return new OrderFilled(toEpochMillis(trade.getExecutedAt()), trade.getOrderId(), tradeId,
+                trade.getQuantity(), Price.toUnits(trade.getExecutedPrice()));
+    }
+    
+    static OrderModified modified(Order order) {
+        return new OrderModified(System.currentTimeMillis(), order.getOrderId(), order.getQuantity(),
+                Price.toUnits(order.getPrice()));
+    }
+    
+    static OrderCancelled cancelled(Order order) {
+        return new OrderCancelled(System.currentTimeMillis(), order.getOrderId());
+    }
+    
+    static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    /**
+     * An order passed validation and was saved (price is NO_PRICE for MARKET orders,
+     * clientOrderId null when the caller sent none)
+     */
+    record OrderAccepted(long timestamp, long orderId, String userId, String symbol,
+                         Order.OrderType orderType, Order.OrderStyle orderStyle,
+                         int quantity, long price, String clientOrderId) implements JournalRecord {
+        
+        public static final long NO_PRICE = Long.MIN_VALUE;
+    }
+    
+    /**
+     * One (full or partial) fill of an order, with the trade it produced
+     */
+    record OrderFilled(long timestamp, long orderId, long tradeId, int quantity, long price) implements JournalRecord {
+        
+        public static final long NO_TRADE_ID = 0;
+    }
+    
+    /**
+     * An open LIMIT order got a new total quantity and / or limit price
+     */
+    record OrderModified(long timestamp, long orderId, int quantity, long price) implements JournalRecord {
+    }
+    
+    /**
+     * An open order was cancelled
+     */
+    record OrderCancelled(long timestamp, long orderId) implements JournalRecord {
+    }
+}
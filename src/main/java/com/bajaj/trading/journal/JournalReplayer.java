@@ -0,0 +1,212 @@
+package com.bajaj.trading.journal;
+
+import com.bajaj.trading.engine.MatchingEngine;
+import com.bajaj.trading.model.Instrument;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.model.Price;
+import com.bajaj.trading.model.Trade;
+import com.bajaj.trading.repository.OrderRepository;
+import com.bajaj.trading.service.InstrumentService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal Replayer - Rebuilds orders, trades and portfolios from the journal at startup
+ * 
+ * Events are folded in journal order into plain objects, written to the (empty) tables with
+ * JDBC batch inserts, and the id sequences are moved past the replayed ids. Open LIMIT orders
+ * go back into the order book. Runs before the web server accepts requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JournalReplayer {
+    
+    // Same as the allocationSize of the entity sequences
+    private static final int ID_BLOCK = 50;
+    
+    private final EventJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRepository orderRepository;
+    private final InstrumentService instrumentService;  // instruments must be seeded first
+    private final MatchingEngine matchingEngine;
+    
+    private final Map<Long, Order> orders = new LinkedHashMap<>();
+    private final List<Trade> trades = new ArrayList<>();
+    private final Map<String, Portfolio> holdings = new LinkedHashMap<>();
+    
+    @PostConstruct
+    public void replay() throws IOException {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        if (orderRepository.count() > 0) {
+            log.warn("Orders table is not empty, skipping journal replay");
+            return;
+        }
+        
+        long start = System.nanoTime();
+        journal.replay(this::apply);
+        transactionTemplate.executeWithoutResult(status -> writeTables());
+        
+        int resting = 0;
+        for (Order order : orders.values()) {
+            if (order.getOrderStyle() == Order.OrderStyle.LIMIT
+                    && (order.getStatus() == Order.OrderStatus.PLACED
+                        || order.getStatus() == Order.OrderStatus.PARTIALLY_FILLED)) {
+                matchingEngine.restore(order);
+                resting++;
+            }
+        }
+        
+        log.info("Replayed journal in {} ms: {} orders ({} resting), {} trades, {} holdings",
+                (System.nanoTime() - start) / 1_000_000, orders.size(), resting, trades.size(), holdings.size());
+        orders.clear();
+        trades.clear();
+        holdings.clear();
+    }
+    
+    private void apply(JournalRecord record) {
+        if (record instanceof JournalRecord.OrderAccepted accepted) {
+            Order order = new Order();
+            order.setOrderId(accepted.orderId());
+            order.setUserId(accepted.userId());
+            order.setSymbol(accepted.symbol());
+            order.setOrderType(accepted.orderType());
+            order.setOrderStyle(accepted.orderStyle());
+            order.setQuantity(accepted.quantity());
+            order.setPrice(accepted.price() == JournalRecord.OrderAccepted.NO_PRICE
+                    ? null : Price.toBigDecimal(accepted.price()));
+            order.setStatus(accepted.orderStyle() == Order.OrderStyle.LIMIT
+                    ? Order.OrderStatus.PLACED : Order.OrderStatus.NEW);
+            order.setCreatedAt(JournalRecord.toLocalDateTime(accepted.timestamp()));
+            order.setClientOrderId(accepted.clientOrderId());
+            orders.put(order.getOrderId(), order);
+        } else if (record instanceof JournalRecord.OrderFilled filled) {
+            Order order = orders.get(filled.orderId());
+            if (order == null) {
+                log.warn("Journal fill for unknown order {}", filled.orderId());
+                return;
+            }
+            applyFill(order, filled);
+        } else if (record instanceof JournalRecord.OrderModified modified) {
+            Order order = orders.get(modified.orderId());
+            if (order != null) {
+                order.setQuantity(modified.quantity());
+                order.setPrice(Price.toBigDecimal(modified.price()));
+            }
+        } else if (record instanceof JournalRecord.OrderCancelled cancelled) {
+            Order order = orders.get(cancelled.orderId());
+            if (order != null) {
+                order.setStatus(Order.OrderStatus.CANCELLED);
+            }
+        }
+    }
+    
+    private void applyFill(Order order, JournalRecord.OrderFilled filled) {
+        order.setFilledQuantity(order.getFilledQuantity() + filled.quantity());
+        if (order.getFilledQuantity().equals(order.getQuantity())) {
+            order.setStatus(Order.OrderStatus.EXECUTED);
+            order.setExecutedAt(JournalRecord.toLocalDateTime(filled.timestamp()));
+        } else if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+            // A match made just before a cancel can be journaled after it
+            order.setStatus(Order.OrderStatus.PARTIALLY_FILLED);
+        }
+        
+        Trade trade = new Trade(order.getOrderId(), order.getSymbol(), order.getOrderType(),
+                filled.quantity(), filled.price(), order.getUserId());
+        trade.setTradeId(filled.tradeId() == JournalRecord.OrderFilled.NO_TRADE_ID ? null : filled.tradeId());
+        trade.setExecutedAt(JournalRecord.toLocalDateTime(filled.timestamp()));
+        trades.add(trade);
+        
+        // Same holding rules as OrderService.updatePortfolio
+        String key = order.getUserId() + '|' + order.getSymbol();
+        Portfolio portfolio = holdings.get(key);
+        if (order.getOrderType() == Order.OrderType.BUY) {
+            if (portfolio == null) {
+                holdings.put(key, new Portfolio(order.getUserId(), order.getSymbol(), filled.quantity(),
+                        trade.getExecutedPrice()));
+            } else {
+                portfolio.addShares(filled.quantity(), filled.price());
+            }
+        } else if (portfolio != null) {
+            portfolio.removeShares(filled.quantity());
+            if (portfolio.getQuantity() == 0) {
+                holdings.remove(key);
+            }
+        }
+    }
+    
+    private void writeTables() {
+        // Trades journaled before their write-behind insert get ids after the known ones
+        long maxTradeId = trades.stream().filter(trade -> trade.getTradeId() != null)
+                .mapToLong(Trade::getTradeId).max().orElse(0);
+        for (Trade trade : trades) {
+            if (trade.getTradeId() == null) {
+                trade.setTradeId(++maxTradeId);
+            }
+        }
+        
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO orders (order_id, symbol, order_type, order_style, quantity, filled_quantity, "
+                + "price, status, created_at, executed_at, user_id, client_order_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            orders.values().stream().map(order -> new Object[] {
+                order.getOrderId(), order.getSymbol(), order.getOrderType().name(), order.getOrderStyle().name(),
+                order.getQuantity(), order.getFilledQuantity(), order.getPrice(), order.getStatus().name(),
+                order.getCreatedAt(), order.getExecutedAt(), order.getUserId(), order.getClientOrderId()
+            }).toList());
+        
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO trades (trade_id, order_id, symbol, trade_type, quantity, executed_price, "
+                + "total_value, executed_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            trades.stream().map(trade -> new Object[] {
+                trade.getTradeId(), trade.getOrderId(), trade.getSymbol(), trade.getTradeType().name(),
+                trade.getQuantity(), trade.getExecutedPrice(), trade.getTotalValue(),
+                trade.getExecutedAt(), trade.getUserId()
+            }).toList());
+        
+        long portfolioId = 0;
+        List<Object[]> portfolioRows = new ArrayList<>(holdings.size());
+        for (Portfolio portfolio : holdings.values()) {
+            BigDecimal lastPrice = instrumentService.getInstrumentBySymbol(portfolio.getSymbol())
+                    .map(Instrument::getLastTradedPrice)
+                    .orElse(portfolio.getAveragePrice());
+            portfolio.updateCurrentValue(Price.toUnits(lastPrice));
+            portfolioRows.add(new Object[] {
+                ++portfolioId, portfolio.getUserId(), portfolio.getSymbol(), portfolio.getQuantity(),
+                portfolio.getAveragePrice(), portfolio.getCurrentValue()
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO portfolio (id, user_id, symbol, quantity, average_price, current_value) "
+                + "VALUES (?, ?, ?, ?, ?, ?)",
+            portfolioRows);
+        
+        restartSequence("order_seq", orders.keySet().stream().mapToLong(Long::longValue).max().orElse(0));
+        restartSequence("trade_seq", maxTradeId);
+        restartSequence("portfolio_seq", portfolioId);
+    }
+    
+    /**
+     * Move a pooled sequence so the next block Hibernate takes starts above every replayed id
+     */
+    private void restartSequence(String sequence, long maxId) {
+        if (maxId > 0) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ID_BLOCK + 1));
+        }
+    }
+}
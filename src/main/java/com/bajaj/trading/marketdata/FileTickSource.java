@@ -0,0 +1,39 @@
+package com.bajaj.trading.marketdata;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays ticks from a text file (SYMBOL,PRICE per line) as fast as they can be read
+ */
+@Slf4j
+class FileTickSource implements Runnable {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final Path path;
+    private final TickCoalescer coalescer;
+    
+    FileTickSource(Path path, TickCoalescer coalescer) {
+        this.path = path;
+        this.coalescer = coalescer;
+    }
+    
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(
+                Files.newBufferedReader(path, StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+            long ticks = TickLineParser.pump(reader, coalescer);
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            log.info("Replayed {} ticks from {} in {} ms ({} ticks/s)", ticks, path, millis, ticks * 1000 / millis);
+        } catch (IOException e) {
+            log.error("Failed to read tick file {}", path, e);
+        }
+    }
+}
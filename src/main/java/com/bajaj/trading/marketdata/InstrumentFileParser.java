@@ -0,0 +1,177 @@
+package com.bajaj.trading.marketdata;
+
+import com.bajaj.trading.model.Price;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Parses the instrument master: one instrument per line, SYMBOL,EXCHANGE,TYPE,PRICE
+ * (e.g. "TCS,NSE,EQUITY,3520.75"). Blank lines, lines starting with # and a "SYMBOL," header
+ * are skipped; malformed lines are skipped with a warning.
+ * 
+ * The bytes are split into one chunk per core at line boundaries and the chunks are parsed in
+ * parallel with absolute reads, so a memory-mapped file is never copied as a whole. Only the
+ * field values become Strings; prices are read straight into fixed-point units.
+ */
+@Slf4j
+final class InstrumentFileParser {
+    
+    // Below this a chunk is not worth a thread
+    private static final int MIN_CHUNK_BYTES = 64 * 1024;
+    private static final int MAX_FIELD_BYTES = 64;
+    private static final int MAX_WARNINGS = 10;
+    
+    private InstrumentFileParser() {
+    }
+    
+    /**
+     * Every well-formed line of the file, in file order
+     */
+    static List<Row> parse(ByteBuffer data) {
+        int size = data.limit();
+        int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), size / MIN_CHUNK_BYTES));
+        int[] bounds = new int[chunks + 1];
+        bounds[chunks] = size;
+        for (int i = 1; i < chunks; i++) {
+            bounds[i] = Math.max(bounds[i - 1], lineStart(data, (int) ((long) size * i / chunks)));
+        }
+        
+        List<List<Row>> parsed = IntStream.range(0, chunks).parallel()
+                .mapToObj(i -> parseChunk(data, bounds[i], bounds[i + 1]))
+                .toList();
+        List<Row> rows = new ArrayList<>(parsed.stream().mapToInt(List::size).sum());
+        parsed.forEach(rows::addAll);
+        return rows;
+    }
+    
+    // First position at or after from that starts a line
+    private static int lineStart(ByteBuffer data, int from) {
+        if (from == 0) {
+            return 0;
+        }
+        int position = from;
+        while (position < data.limit() && data.get(position - 1) != '\n') {
+            position++;
+        }
+        return position;
+    }
+    
+    private static List<Row> parseChunk(ByteBuffer data, int start, int end) {
+        List<Row> rows = new ArrayList<>((end - start) / 32);
+        byte[] scratch = new byte[MAX_FIELD_BYTES];
+        int[] fieldEnds = new int[4];
+        int warnings = 0;
+        
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && data.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && data.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            
+            if (contentEnd > lineStart && data.get(lineStart) != '#' && !isHeader(data, lineStart, contentEnd)) {
+                Row row = parseLine(data, lineStart, contentEnd, fieldEnds, scratch);
+                if (row != null) {
+                    rows.add(row);
+                } else if (warnings++ < MAX_WARNINGS) {
+                    log.warn("Skipping malformed instrument line: {}", text(data, lineStart, contentEnd));
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return rows;
+    }
+    
+    private static Row parseLine(ByteBuffer data, int start, int end, int[] fieldEnds, byte[] scratch) {
+        int field = 0;
+        for (int i = start; i < end && field < fieldEnds.length; i++) {
+            if (data.get(i) == ',') {
+                fieldEnds[field++] = i;
+            }
+        }
+        if (field != fieldEnds.length - 1) {
+            return null;
+        }
+        fieldEnds[field] = end;
+        
+        String symbol = field(data, start, fieldEnds[0], scratch);
+        String exchange = field(data, fieldEnds[0] + 1, fieldEnds[1], scratch);
+        String type = field(data, fieldEnds[1] + 1, fieldEnds[2], scratch);
+        long price = parsePrice(data, fieldEnds[2] + 1, end);
+        if (symbol == null || exchange == null || type == null || price <= 0) {
+            return null;
+        }
+        return new Row(symbol, exchange, type, price);
+    }
+    
+    // Trimmed ASCII field, null when empty or too long
+    private static String field(ByteBuffer data, int start, int end, byte[] scratch) {
+        while (start < end && data.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && data.get(end - 1) == ' ') {
+            end--;
+        }
+        int length = end - start;
+        if (length == 0 || length > scratch.length) {
+            return null;
+        }
+        data.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.US_ASCII);
+    }
+    
+    // Digits with at most Price.SCALE decimals, as fixed-point units; -1 when malformed
+    private static long parsePrice(ByteBuffer data, int start, int end) {
+        long units = 0;
+        int decimals = -1;
+        boolean digits = false;
+        for (int i = start; i < end; i++) {
+            byte b = data.get(i);
+            if (b >= '0' && b <= '9') {
+                if (decimals == Price.SCALE || units > (Long.MAX_VALUE - 9) / 10) {
+                    return -1;
+                }
+                units = units * 10 + (b - '0');
+                digits = true;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b != ' ') {
+                return -1;
+            }
+        }
+        if (!digits) {
+            return -1;
+        }
+        for (int d = Math.max(decimals, 0); d < Price.SCALE; d++) {
+            if (units > Long.MAX_VALUE / 10) {
+                return -1;
+            }
+            units *= 10;
+        }
+        return units;
+    }
+    
+    private static boolean isHeader(ByteBuffer data, int start, int end) {
+        return end - start >= 7 && text(data, start, start + 7).equalsIgnoreCase("SYMBOL,");
+    }
+    
+    private static String text(ByteBuffer data, int start, int end) {
+        byte[] bytes = new byte[Math.min(end - start, 200)];
+        data.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+    
+    /**
+     * One instrument of the master file (price in fixed-point units)
+     */
+    record Row(String symbol, String exchange, String type, long price) {}
+}
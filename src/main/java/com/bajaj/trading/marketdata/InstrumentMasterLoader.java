@@ -0,0 +1,221 @@
+package com.bajaj.trading.marketdata;
+
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.model.Price;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Instrument Master Loader - Fills the instruments table from the instrument master file
+ * 
+ * - The file (trading.instruments.file, SYMBOL,EXCHANGE,TYPE,PRICE per line) is memory-mapped and
+ *   parsed on all cores; "classpath:" files (the bundled sample) are read into memory instead
+ * - Startup: an empty table gets every row with JDBC batch inserts
+ * - Reload: only the difference is written - new symbols inserted, changed exchange / type updated
+ * 
+ * Each batch commits on its own, so a reload holds row locks for one batch at a time. Readers are
+ * never blocked: quotes are served from the QuoteCache, and H2 reads see the last committed rows.
+ * Instruments missing from a new file are kept (orders and holdings may still refer to them), and
+ * a reload never overwrites the live price of an existing instrument.
+ * 
+ * After every load the InstrumentSearchIndex is rebuilt from the table.
+ */
+@Component
+@Slf4j
+public class InstrumentMasterLoader {
+    
+    private static final String CLASSPATH = "classpath:";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuoteCache quoteCache;
+    private final InstrumentSearchIndex searchIndex;
+    private final String file;
+    private final int batchSize;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public InstrumentMasterLoader(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  QuoteCache quoteCache, InstrumentSearchIndex searchIndex,
+                                  @Value("${trading.instruments.file:classpath:instruments.csv}") String file,
+                                  @Value("${trading.instruments.batch-size:5000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("trading.instruments.batch-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.quoteCache = quoteCache;
+        this.searchIndex = searchIndex;
+        this.file = file;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Load the whole master file into an empty instruments table (does nothing otherwise)
+     */
+    public LoadResult loadIfEmpty() {
+        lock.lock();
+        try {
+            Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM instruments", Integer.class);
+            if (existing != null && existing > 0) {
+                log.info("Instruments already initialized ({} rows)", existing);
+                rebuildSearchIndex();
+                return new LoadResult(file, 0, 0, 0, 0, 0, 0);
+            }
+            long start = System.nanoTime();
+            Map<String, InstrumentFileParser.Row> rows = read();
+            long parsed = System.nanoTime();
+            insert(new ArrayList<>(rows.values()));
+            rebuildSearchIndex();
+            LoadResult result = new LoadResult(file, rows.size(), rows.size(), 0, 0,
+                    (parsed - start) / 1_000_000, (System.nanoTime() - parsed) / 1_000_000);
+            log.info("Loaded {} instruments from {} in {} ms (parse {} ms, insert {} ms)", result.rows(), file,
+                    result.parseMillis() + result.writeMillis(), result.parseMillis(), result.writeMillis());
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Re-read the master file and write only what changed
+     * Reloads run one at a time; reads and trading carry on meanwhile.
+     */
+    public LoadResult reload() {
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            Map<String, InstrumentFileParser.Row> rows = read();
+            Map<String, InstrumentFileParser.Row> existing = new HashMap<>();
+            jdbcTemplate.query("SELECT symbol, exchange, instrument_type FROM instruments", resultSet -> {
+                existing.put(resultSet.getString(1), new InstrumentFileParser.Row(
+                        resultSet.getString(1), resultSet.getString(2), resultSet.getString(3), 0));
+            });
+            
+            List<InstrumentFileParser.Row> added = new ArrayList<>();
+            List<InstrumentFileParser.Row> changed = new ArrayList<>();
+            for (InstrumentFileParser.Row row : rows.values()) {
+                InstrumentFileParser.Row current = existing.get(row.symbol());
+                if (current == null) {
+                    added.add(row);
+                } else if (!current.exchange().equals(row.exchange()) || !current.type().equals(row.type())) {
+                    changed.add(row);
+                }
+            }
+            long parsed = System.nanoTime();
+            
+            insert(added);
+            inBatches(changed, "UPDATE instruments SET exchange = ?, instrument_type = ? WHERE symbol = ?",
+                    (statement, row) -> {
+                        statement.setString(1, row.exchange());
+                        statement.setString(2, row.type());
+                        statement.setString(3, row.symbol());
+                    });
+            // Cached quotes carry exchange and type: drop the changed ones, the next read reloads them
+            for (InstrumentFileParser.Row row : changed) {
+                quoteCache.invalidate(row.symbol());
+            }
+            if (!added.isEmpty() || !changed.isEmpty()) {
+                rebuildSearchIndex();
+            }
+            
+            int missing = (int) existing.keySet().stream().filter(symbol -> !rows.containsKey(symbol)).count();
+            LoadResult result = new LoadResult(file, rows.size(), added.size(), changed.size(), missing,
+                    (parsed - start) / 1_000_000, (System.nanoTime() - parsed) / 1_000_000);
+            log.info("Reloaded {} instruments from {}: {} added, {} changed, {} not in the file (kept) in {} ms",
+                    result.rows(), file, result.added(), result.changed(), result.missing(),
+                    result.parseMillis() + result.writeMillis());
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void insert(List<InstrumentFileParser.Row> rows) {
+        inBatches(rows, "INSERT INTO instruments (symbol, exchange, instrument_type, last_traded_price) "
+                + "VALUES (?, ?, ?, ?)", (statement, row) -> {
+                    statement.setString(1, row.symbol());
+                    statement.setString(2, row.exchange());
+                    statement.setString(3, row.type());
+                    statement.setBigDecimal(4, Price.toBigDecimal(row.price()));
+                });
+    }
+    
+    private void inBatches(List<InstrumentFileParser.Row> rows, String sql,
+                           ParameterizedPreparedStatementSetter<InstrumentFileParser.Row> setter) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<InstrumentFileParser.Row> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            transactionTemplate.executeWithoutResult(
+                    status -> jdbcTemplate.batchUpdate(sql, batch, batch.size(), setter));
+        }
+    }
+    
+    private void rebuildSearchIndex() {
+        searchIndex.rebuild(jdbcTemplate.query("SELECT symbol, exchange, instrument_type FROM instruments",
+                (resultSet, row) -> new InstrumentSearchIndex.Entry(
+                        resultSet.getString(1), resultSet.getString(2), resultSet.getString(3))));
+    }
+    
+    /**
+     * Parse the master file; a symbol listed twice keeps its last line
+     */
+    private Map<String, InstrumentFileParser.Row> read() {
+        List<InstrumentFileParser.Row> rows = InstrumentFileParser.parse(map());
+        Map<String, InstrumentFileParser.Row> bySymbol = new LinkedHashMap<>(rows.size() * 4 / 3 + 1);
+        for (InstrumentFileParser.Row row : rows) {
+            bySymbol.put(row.symbol(), row);
+        }
+        return bySymbol;
+    }
+    
+    private ByteBuffer map() {
+        try {
+            if (file.startsWith(CLASSPATH)) {
+                try (InputStream in = new ClassPathResource(file.substring(CLASSPATH.length())).getInputStream()) {
+                    return ByteBuffer.wrap(in.readAllBytes());
+                }
+            }
+            try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Instrument file larger than 2 GB: " + file);
+                }
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read instrument file " + file, e);
+        }
+    }
+    
+    /**
+     * Outcome of a load: rows in the file, rows written, and where the time went
+     */
+    public record LoadResult(
+        String file,
+        int rows,
+        int added,
+        int changed,
+        int missing,
+        long parseMillis,
+        long writeMillis
+    ) {}
+}
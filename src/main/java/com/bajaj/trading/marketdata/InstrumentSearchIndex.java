@@ -0,0 +1,141 @@
+package com.bajaj.trading.marketdata;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Instrument Search Index - Symbol prefix search with exchange / type filters, for autocomplete
+ * 
+ * - Symbols are kept in one sorted array: the symbols with a prefix are one contiguous range,
+ *   found with two binary searches, and results are read from its start up to the limit
+ * - Exchange and type are stored as small int codes next to each symbol, so filtering a row
+ *   is two int compares, not String equals
+ * - The index is an immutable snapshot behind a volatile reference: searches never lock, and
+ *   InstrumentMasterLoader swaps in a new snapshot after every load / reload
+ * 
+ * Matching is case-insensitive; symbols, exchanges and types are indexed in upper case.
+ */
+@Component
+@Slf4j
+public class InstrumentSearchIndex {
+    
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    /**
+     * Replace the index with these instruments
+     */
+    public void rebuild(List<Entry> instruments) {
+        long start = System.nanoTime();
+        snapshot = Snapshot.of(instruments);
+        log.info("Instrument search index built: {} symbols in {} ms",
+                snapshot.symbols.length, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Up to limit instruments whose symbol starts with prefix (null / empty = any), in symbol order
+     * exchange and type are exact filters when not null; an unknown value simply matches nothing.
+     */
+    public List<Entry> search(String prefix, String exchange, String type, int limit) {
+        Snapshot current = snapshot;
+        String symbolPrefix = prefix == null ? "" : prefix.trim().toUpperCase(Locale.ROOT);
+        int exchangeCode = current.code(current.exchangeCodes, exchange);
+        int typeCode = current.code(current.typeCodes, type);
+        if (exchangeCode == Snapshot.UNKNOWN || typeCode == Snapshot.UNKNOWN) {
+            return List.of();
+        }
+        
+        // Symbols with the prefix are the range [from, to); the scan inside it only reads the int codes
+        int from = current.lowerBound(symbolPrefix);
+        int to = symbolPrefix.isEmpty()
+                ? current.symbols.length
+                : current.lowerBound(symbolPrefix + Character.MAX_VALUE);
+        List<Entry> matches = new ArrayList<>(Math.min(limit, 16));
+        for (int i = from; i < to && matches.size() < limit; i++) {
+            if ((exchangeCode == Snapshot.ANY || current.exchanges[i] == exchangeCode)
+                    && (typeCode == Snapshot.ANY || current.types[i] == typeCode)) {
+                matches.add(current.entry(i));
+            }
+        }
+        return matches;
+    }
+    
+    public int size() {
+        return snapshot.symbols.length;
+    }
+    
+    /**
+     * Sorted symbols with their exchange / type codes in parallel arrays
+     */
+    private static final class Snapshot {
+        
+        static final int ANY = -1;
+        static final int UNKNOWN = -2;
+        static final Snapshot EMPTY = of(List.of());
+        
+        final String[] symbols;
+        final int[] exchanges;
+        final int[] types;
+        final Map<String, Integer> exchangeCodes = new HashMap<>();
+        final Map<String, Integer> typeCodes = new HashMap<>();
+        final List<String> exchangeNames = new ArrayList<>();
+        final List<String> typeNames = new ArrayList<>();
+        
+        private Snapshot(int size) {
+            symbols = new String[size];
+            exchanges = new int[size];
+            types = new int[size];
+        }
+        
+        static Snapshot of(List<Entry> instruments) {
+            Entry[] sorted = instruments.stream()
+                    .map(entry -> new Entry(entry.symbol().toUpperCase(Locale.ROOT),
+                            entry.exchange().toUpperCase(Locale.ROOT),
+                            entry.instrumentType().toUpperCase(Locale.ROOT)))
+                    .sorted((a, b) -> a.symbol().compareTo(b.symbol()))
+                    .toArray(Entry[]::new);
+            Snapshot snapshot = new Snapshot(sorted.length);
+            for (int i = 0; i < sorted.length; i++) {
+                snapshot.symbols[i] = sorted[i].symbol();
+                snapshot.exchanges[i] = intern(sorted[i].exchange(), snapshot.exchangeCodes, snapshot.exchangeNames);
+                snapshot.types[i] = intern(sorted[i].instrumentType(), snapshot.typeCodes, snapshot.typeNames);
+            }
+            return snapshot;
+        }
+        
+        private static int intern(String value, Map<String, Integer> codes, List<String> names) {
+            return codes.computeIfAbsent(value, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+        
+        int code(Map<String, Integer> codes, String value) {
+            if (value == null || value.isBlank()) {
+                return ANY;
+            }
+            return codes.getOrDefault(value.trim().toUpperCase(Locale.ROOT), UNKNOWN);
+        }
+        
+        // Index of the first symbol >= key
+        int lowerBound(String key) {
+            int found = Arrays.binarySearch(symbols, key);
+            return found < 0 ? -found - 1 : found;
+        }
+        
+        Entry entry(int i) {
+            return new Entry(symbols[i], exchangeNames.get(exchanges[i]), typeNames.get(types[i]));
+        }
+    }
+    
+    /**
+     * One searchable instrument
+     */
+    public record Entry(String symbol, String exchange, String instrumentType) {}
+}
@@ -0,0 +1,165 @@
+package com.bajaj.trading.marketdata;
+
+import com.bajaj.trading.service.InstrumentService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Market Data Service - Ingests ticks and publishes the latest prices in batches
+ * 
+ * Ticks arrive from a file, a TCP socket or {@link #publish} and go into a {@link TickCoalescer}.
+ * A single publisher thread drains the coalescer and applies each batch to the instruments
+ * in one transaction, which also fires the LIMIT order triggers for the batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MarketDataService {
+    
+    private final InstrumentService instrumentService;
+    
+    @Value("${trading.marketdata.file:}")
+    private String tickFile;
+    
+    @Value("${trading.marketdata.socket-port:0}")
+    private int socketPort;
+    
+    @Value("${trading.marketdata.max-symbols:200000}")
+    private int maxSymbols;
+    
+    @Value("${trading.marketdata.max-batch:5000}")
+    private int maxBatch;
+    
+    @Value("${trading.marketdata.idle-wait-ms:10}")
+    private long idleWaitMs;
+    
+    private TickCoalescer coalescer;
+    private SocketTickSource socketSource;
+    private volatile boolean running;
+    private Thread publisher;
+    
+    private volatile long publishedTicks;
+    private volatile long batches;
+    
+    /**
+     * Start the publisher and any configured feeds once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        coalescer = new TickCoalescer(maxSymbols);
+        running = true;
+        
+        publisher = new Thread(this::publishLoop, "market-data-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+        
+        if (!tickFile.isBlank()) {
+            startDaemon(new FileTickSource(Path.of(tickFile), coalescer), "market-data-file");
+        }
+        if (socketPort > 0) {
+            socketSource = new SocketTickSource(socketPort, coalescer);
+            startDaemon(socketSource, "market-data-socket");
+        }
+        log.info("Market data ingestion started");
+    }
+    
+    /**
+     * In-process feed: record a tick for the symbol
+     * Returns false if the ingestion stage is not running or the tick was dropped.
+     */
+    public boolean publish(String symbol, BigDecimal price) {
+        TickCoalescer current = coalescer;
+        return running && current != null && current.offer(symbol, price);
+    }
+    
+    private void publishLoop() {
+        Map<String, BigDecimal> batch = new HashMap<>();
+        while (running || !coalescer.isEmpty()) {
+            batch.clear();
+            if (coalescer.drain(batch, maxBatch) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleWaitMs));
+                continue;
+            }
+            
+            try {
+                for (String symbol : instrumentService.updateLastTradedPrices(batch)) {
+                    coalescer.evict(symbol);
+                }
+                publishedTicks += batch.size();
+                batches++;
+            } catch (RuntimeException e) {
+                log.error("Failed to publish batch of {} prices", batch.size(), e);
+            }
+        }
+    }
+    
+    private static void startDaemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Stop the feeds and publish whatever is still pending
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (socketSource != null) {
+            socketSource.close();
+        }
+        try {
+            publisher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Market data ingestion stopped: {} ticks received, {} coalesced, {} published in {} batches",
+                coalescer.getReceived(), coalescer.getCoalesced(), publishedTicks, batches);
+    }
+    
+    public MarketDataStats getStats() {
+        TickCoalescer current = coalescer;
+        if (current == null) {
+            return new MarketDataStats(0, 0, 0, 0, 0, 0, publishedTicks, batches);
+        }
+        return new MarketDataStats(
+            current.getReceived(),
+            current.getCoalesced(),
+            current.getDropped(),
+            current.getMalformed(),
+            current.getEvicted(),
+            current.getSymbolCount(),
+            publishedTicks,
+            batches
+        );
+    }
+    
+    public record MarketDataStats(
+        long received,
+        long coalesced,
+        long dropped,
+        long malformed,
+        long evicted,
+        int symbols,
+        long published,
+        long batches
+    ) {}
+}
@@ -0,0 +1,69 @@
+package com.bajaj.trading.marketdata;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Accepts TCP feed connections and reads ticks (SYMBOL,PRICE per line) from each one
+ * Every connection gets its own reader thread; all of them feed the same coalescer.
+ */
+@Slf4j
+class SocketTickSource implements Runnable {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final int port;
+    private final TickCoalescer coalescer;
+    private volatile ServerSocket serverSocket;
+    
+    SocketTickSource(int port, TickCoalescer coalescer) {
+        this.port = port;
+        this.coalescer = coalescer;
+    }
+    
+    @Override
+    public void run() {
+        try (ServerSocket server = new ServerSocket(port)) {
+            serverSocket = server;
+            log.info("Market data feed listening on port {}", port);
+            
+            while (!server.isClosed()) {
+                Socket socket = server.accept();
+                Thread reader = new Thread(() -> read(socket), "market-data-feed-" + socket.getPort());
+                reader.setDaemon(true);
+                reader.start();
+            }
+        } catch (IOException e) {
+            if (serverSocket == null || !serverSocket.isClosed()) {
+                log.error("Market data feed on port {} stopped", port, e);
+            }
+        }
+    }
+    
+    private void read(Socket socket) {
+        try (socket; BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+            long ticks = TickLineParser.pump(reader, coalescer);
+            log.info("Feed connection {} closed after {} ticks", socket.getRemoteSocketAddress(), ticks);
+        } catch (IOException e) {
+            log.warn("Feed connection {} failed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        }
+    }
+    
+    void close() {
+        ServerSocket server = serverSocket;
+        if (server != null) {
+            try {
+                server.close();
+            } catch (IOException e) {
+                log.debug("Error closing feed socket", e);
+            }
+        }
+    }
+}
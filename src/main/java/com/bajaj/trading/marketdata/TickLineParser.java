@@ -0,0 +1,57 @@
+package com.bajaj.trading.marketdata;
+
+import com.bajaj.trading.model.Price;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Parses the plain-text tick format shared by the file and socket sources
+ * One tick per line: SYMBOL,PRICE (e.g. "TCS,3521.40"). Blank lines and lines starting with # are skipped.
+ * Lines without a symbol, or with a price that is not positive or has more than Price.SCALE
+ * decimals, are skipped and counted as malformed.
+ */
+@Slf4j
+final class TickLineParser {
+    
+    private TickLineParser() {
+    }
+    
+    /**
+     * Read ticks until end of stream (or the thread is interrupted) and offer them to the coalescer
+     * Returns the number of ticks accepted.
+     */
+    static long pump(BufferedReader reader, TickCoalescer coalescer) throws IOException {
+        long accepted = 0;
+        String line;
+        while ((line = reader.readLine()) != null && !Thread.currentThread().isInterrupted()) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            
+            int comma = line.indexOf(',');
+            if (comma <= 0) {
+                coalescer.rejectMalformed();
+                log.warn("Skipping malformed tick: {}", line);
+                continue;
+            }
+            
+            try {
+                String symbol = line.substring(0, comma).trim();
+                BigDecimal price = new BigDecimal(line.substring(comma + 1).trim());
+                if (price.signum() <= 0 || !Price.isRepresentable(price)) {
+                    coalescer.rejectMalformed();
+                    log.warn("Skipping tick with invalid price: {}", line);
+                } else if (coalescer.offer(symbol, price)) {
+                    accepted++;
+                }
+            } catch (NumberFormatException e) {
+                coalescer.rejectMalformed();
+                log.warn("Skipping tick with bad price: {}", line);
+            }
+        }
+        return accepted;
+    }
+}
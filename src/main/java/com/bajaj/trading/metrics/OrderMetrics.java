@@ -0,0 +1,172 @@
+package com.bajaj.trading.metrics;
+
+import com.bajaj.trading.engine.MatchingEngine;
+import com.bajaj.trading.engine.PortfolioValuationEngine;
+import com.bajaj.trading.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order Metrics - Micrometer meters for the order pipeline
+ * 
+ * - trading.order.stage (timer, tag stage): time spent in each step of placing an order
+ * - trading.order.latency (timer, tag style): end to end, including the wait for the account lane
+ * - trading.orders.accepted (counter, tags symbol / type / style)
+ * - trading.orders.rejected (counter, tag reason)
+ * - trading.orders.open (gauge): LIMIT orders resting in the books
+ * - trading.holdings (gauge): open holdings held by the valuation engine
+ * - trading.fills.maker.failed (counter, tag outcome): resting-order fills that failed on the
+ *   maker's lane, retried or given up until the next start
+ * 
+ * Every meter is registered once and kept in a field or map, so recording is a nanoTime
+ * difference plus a lock-free add - no registry lookup or tag allocation per order.
+ * Scraped at /actuator/prometheus.
+ */
+@Component
+public class OrderMetrics {
+    
+    /**
+     * Steps of placing and executing an order
+     */
+    public enum Stage {
+        RISK_CHECK,         // pre-trade limits and reservation, before the lane
+        LANE_WAIT,          // queued behind the user's earlier orders
+        VALIDATION,         // quantity, price and holdings checks
+        INSTRUMENT_LOOKUP,  // quote cache (SQL on a miss)
+        ORDER_SAVE,         // persist the new order and journal it
+        MATCHING,           // LIMIT orders: order book match
+        TRADE_CREATE,       // one per fill
+        PORTFOLIO_UPDATE,   // one per fill
+        COMMIT              // flush + commit of the order's transaction
+    }
+    
+    /**
+     * Why an order was refused (each maps to one validation in OrderService or RiskEngine)
+     */
+    public enum RejectReason {
+        MISSING_TYPE_OR_STYLE,
+        INVALID_QUANTITY,
+        UNKNOWN_SYMBOL,
+        MISSING_PRICE,
+        INVALID_PRICE_SCALE,
+        NO_HOLDINGS,
+        INSUFFICIENT_HOLDINGS,
+        PRICE_BAND,
+        ORDER_NOTIONAL,
+        BUYING_POWER,
+        POSITION_LIMIT
+    }
+    
+    private static final int STYLES = Order.OrderStyle.values().length;
+    
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Order.OrderStyle, Timer> latencyTimers = new EnumMap<>(Order.OrderStyle.class);
+    private final Map<RejectReason, Counter> rejected = new EnumMap<>(RejectReason.class);
+    // symbol -> one counter per (type, style)
+    private final Map<String, Counter[]> accepted = new ConcurrentHashMap<>();
+    private final Counter makerFillsRetried;
+    private final Counter makerFillsGivenUp;
+    
+    public OrderMetrics(MeterRegistry registry, MatchingEngine matchingEngine,
+                        PortfolioValuationEngine valuationEngine) {
+        this.registry = registry;
+        
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("trading.order.stage")
+                    .description("Time spent in one step of placing an order")
+                    .tag("stage", tagValue(stage))
+                    .register(registry));
+        }
+        for (Order.OrderStyle style : Order.OrderStyle.values()) {
+            latencyTimers.put(style, Timer.builder("trading.order.latency")
+                    .description("Order placement end to end, including the wait for the account lane")
+                    .tag("style", style.name())
+                    .register(registry));
+        }
+        for (RejectReason reason : RejectReason.values()) {
+            rejected.put(reason, Counter.builder("trading.orders.rejected")
+                    .description("Orders refused by validation")
+                    .tag("reason", tagValue(reason))
+                    .register(registry));
+        }
+        
+        makerFillsRetried = makerFillFailures(registry, "retried");
+        makerFillsGivenUp = makerFillFailures(registry, "given_up");
+        
+        Gauge.builder("trading.orders.open", matchingEngine, MatchingEngine::getRestingOrderCount)
+                .description("LIMIT orders resting in the order books")
+                .register(registry);
+        Gauge.builder("trading.holdings", valuationEngine, PortfolioValuationEngine::getHoldingCount)
+                .description("Open holdings of the users loaded into the valuation engine")
+                .register(registry);
+    }
+    
+    /**
+     * Record a stage that started at startNanos (a System.nanoTime value) and ends now
+     */
+    public void recordStage(Stage stage, long startNanos) {
+        recordStageNanos(stage, System.nanoTime() - startNanos);
+    }
+    
+    public void recordStageNanos(Stage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordLatency(Order.OrderStyle style, long startNanos) {
+        if (style != null) {
+            latencyTimers.get(style).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    public void accepted(Order order) {
+        Counter[] counters = accepted.computeIfAbsent(order.getSymbol(), this::acceptedCounters);
+        counters[order.getOrderType().ordinal() * STYLES + order.getOrderStyle().ordinal()].increment();
+    }
+    
+    public void rejected(RejectReason reason) {
+        rejected.get(reason).increment();
+    }
+    
+    /**
+     * A pending maker fill failed on its lane; retried = it will be tried again after a pause
+     */
+    public void makerFillFailed(boolean retried) {
+        (retried ? makerFillsRetried : makerFillsGivenUp).increment();
+    }
+    
+    private static Counter makerFillFailures(MeterRegistry registry, String outcome) {
+        return Counter.builder("trading.fills.maker.failed")
+                .description("Resting-order fills that failed on the maker's account lane")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+    
+    private Counter[] acceptedCounters(String symbol) {
+        Counter[] counters = new Counter[Order.OrderType.values().length * STYLES];
+        for (Order.OrderType type : Order.OrderType.values()) {
+            for (Order.OrderStyle style : Order.OrderStyle.values()) {
+                counters[type.ordinal() * STYLES + style.ordinal()] = Counter.builder("trading.orders.accepted")
+                        .description("Orders accepted, by symbol, side and style")
+                        .tag("symbol", symbol)
+                        .tag("type", type.name())
+                        .tag("style", style.name())
+                        .register(registry);
+            }
+        }
+        return counters;
+    }
+    
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
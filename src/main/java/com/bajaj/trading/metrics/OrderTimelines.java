@@ -0,0 +1,260 @@
+package com.bajaj.trading.metrics;
+
+import com.bajaj.trading.model.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Order Timelines - Per-order System.nanoTime stamps of the placement path, kept for the last N orders
+ * 
+ * While an order is placed, its stamps go into a per-thread scratch trace (reused, never
+ * reallocated). When the order completes, the trace is copied into a preallocated ring of
+ * parallel arrays, so recording allocates nothing. The oldest orders are overwritten.
+ * 
+ * Several lanes publish at once: each claims a slot with one atomic increment and guards it with
+ * a per-slot version (odd while being written, a seqlock), so a reader copies only consistent
+ * entries. Fences keep the plain data accesses between the two version accesses.
+ * Reads (slowest-N) do the sorting and allocate; they are admin-only.
+ */
+@Component
+public class OrderTimelines {
+    
+    /**
+     * Points on an order's path (unreached marks stay 0, e.g. the fill marks of a resting LIMIT)
+     */
+    public enum Mark {
+        RECEIVED,           // placeOrder called, before waiting for the account lane
+        VALIDATED,
+        PERSISTED,          // order saved and journaled
+        EXECUTED,           // fill recorded on the order (last fill if several)
+        TRADE_PERSISTED,
+        PORTFOLIO_UPDATED,
+        COMMITTED           // transaction committed (single orders; baskets commit together)
+    }
+    
+    private static final Mark[] MARKS = Mark.values();
+    private static final int WIDTH = MARKS.length;
+    
+    private static final ThreadLocal<Trace> CURRENT = ThreadLocal.withInitial(Trace::new);
+    
+    @Value("${trading.timeline.enabled:true}")
+    private boolean enabled;
+    
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray versions;
+    private final long[] stamps;
+    private final long[] orderIds;
+    private final long[] completedAtMillis;
+    private final String[] userIds;
+    private final String[] symbols;
+    private final Order.OrderType[] types;
+    private final Order.OrderStyle[] styles;
+    
+    public OrderTimelines(@Value("${trading.timeline.capacity:4096}") int requestedCapacity) {
+        capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;  // next power of two
+        mask = capacity - 1;
+        versions = new AtomicLongArray(capacity);
+        stamps = new long[capacity * WIDTH];
+        orderIds = new long[capacity];
+        completedAtMillis = new long[capacity];
+        userIds = new String[capacity];
+        symbols = new String[capacity];
+        types = new Order.OrderType[capacity];
+        styles = new Order.OrderStyle[capacity];
+    }
+    
+    /**
+     * Start tracing the order this thread is about to place
+     */
+    public void begin(long receivedNanos) {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = CURRENT.get();
+        trace.reset();
+        trace.active = true;
+        trace.stamps[Mark.RECEIVED.ordinal()] = receivedNanos;
+    }
+    
+    /**
+     * Stamp a mark of the order being traced (before it has an id, or when it is this order)
+     * Fills of other orders handled on the same thread (e.g. a resting maker) are ignored.
+     */
+    public void mark(Mark mark, Order order) {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = CURRENT.get();
+        if (trace.active && (trace.order == null || Objects.equals(trace.order.getOrderId(), order.getOrderId()))) {
+            trace.stamps[mark.ordinal()] = System.nanoTime();
+        }
+    }
+    
+    /**
+     * Attach the saved order to the trace (identifies it for the later marks and in the report)
+     */
+    public void identify(Order order) {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = CURRENT.get();
+        if (trace.active && trace.order == null) {
+            trace.order = order;
+        }
+    }
+    
+    /**
+     * Stamp COMMITTED and publish the order's timeline
+     */
+    public void commit() {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = CURRENT.get();
+        if (trace.active) {
+            trace.stamps[Mark.COMMITTED.ordinal()] = System.nanoTime();
+            publish(trace);
+        }
+    }
+    
+    /**
+     * Publish the timeline without a commit stamp (orders in a basket share one commit)
+     */
+    public void end() {
+        if (!enabled) {
+            return;
+        }
+        Trace trace = CURRENT.get();
+        if (trace.active) {
+            publish(trace);
+        }
+    }
+    
+    private void publish(Trace trace) {
+        Order order = trace.order;
+        trace.active = false;
+        if (order == null) {
+            return;  // rejected before it was saved
+        }
+        
+        long seq = sequence.getAndIncrement();
+        int slot = (int) (seq & mask);
+        long version = (seq + 1) << 1;
+        versions.set(slot, version - 1);  // odd: being written
+        // The volatile write only keeps earlier stores above it; stop the data stores below from
+        // moving ahead of it, or a reader could see new data under the old even version
+        VarHandle.storeStoreFence();
+        System.arraycopy(trace.stamps, 0, stamps, slot * WIDTH, WIDTH);
+        orderIds[slot] = order.getOrderId();
+        completedAtMillis[slot] = System.currentTimeMillis();
+        userIds[slot] = order.getUserId();
+        symbols[slot] = order.getSymbol();
+        types[slot] = order.getOrderType();
+        styles[slot] = order.getOrderStyle();
+        versions.set(slot, version);
+        trace.order = null;
+    }
+    
+    /**
+     * The slowest recent orders (received to last stamp), slowest first
+     */
+    public List<Timeline> slowest(int limit) {
+        PriorityQueue<Timeline> top = new PriorityQueue<>(Comparator.comparingDouble(Timeline::totalMicros));
+        long[] copy = new long[WIDTH];
+        for (int slot = 0; slot < capacity; slot++) {
+            long before = versions.get(slot);
+            if (before == 0 || (before & 1) != 0) {
+                continue;  // never written, or being written
+            }
+            System.arraycopy(stamps, slot * WIDTH, copy, 0, WIDTH);
+            long orderId = orderIds[slot];
+            long completedAt = completedAtMillis[slot];
+            String userId = userIds[slot];
+            String symbol = symbols[slot];
+            Order.OrderType type = types[slot];
+            Order.OrderStyle style = styles[slot];
+            // The volatile read only keeps later loads below it; keep the copies above the re-check
+            VarHandle.acquireFence();
+            if (versions.get(slot) != before) {
+                continue;  // overwritten while copying
+            }
+            
+            Timeline timeline = Timeline.of(orderId, userId, symbol, type, style, completedAt, copy);
+            if (top.size() < limit) {
+                top.add(timeline);
+            } else if (limit > 0 && timeline.totalMicros() > top.peek().totalMicros()) {
+                top.poll();
+                top.add(timeline);
+            }
+        }
+        
+        List<Timeline> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingDouble(Timeline::totalMicros).reversed());
+        return result;
+    }
+    
+    public long getRecorded() {
+        return sequence.get();
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Scratch trace of the order the current thread is placing
+     */
+    private static final class Trace {
+        
+        private final long[] stamps = new long[WIDTH];
+        private boolean active;
+        private Order order;
+        
+        void reset() {
+            Arrays.fill(stamps, 0);
+            order = null;
+        }
+    }
+    
+    /**
+     * One order's timeline: time from RECEIVED to each reached mark, and the step that led to it
+     */
+    public record Timeline(long orderId, String userId, String symbol, Order.OrderType orderType,
+                           Order.OrderStyle orderStyle, long completedAtEpochMillis, double totalMicros,
+                           List<Step> steps) {
+        
+        static Timeline of(long orderId, String userId, String symbol, Order.OrderType type,
+                           Order.OrderStyle style, long completedAt, long[] stamps) {
+            long received = stamps[Mark.RECEIVED.ordinal()];
+            long previous = received;
+            long last = received;
+            List<Step> steps = new ArrayList<>(WIDTH - 1);
+            for (int i = 1; i < WIDTH; i++) {
+                if (stamps[i] == 0) {
+                    continue;
+                }
+                steps.add(new Step(MARKS[i], (stamps[i] - received) / 1000.0, (stamps[i] - previous) / 1000.0));
+                previous = stamps[i];
+                last = Math.max(last, stamps[i]);
+            }
+            return new Timeline(orderId, userId, symbol, type, style, completedAt, (last - received) / 1000.0, steps);
+        }
+    }
+    
+    /**
+     * A reached mark: microseconds since RECEIVED, and since the previous reached mark
+     */
+    public record Step(Mark mark, double atMicros, double tookMicros) {}
+}
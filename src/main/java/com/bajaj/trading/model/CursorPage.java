@@ -0,0 +1,37 @@
+package com.bajaj.trading.model;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a history list, newest first (keyset pagination)
+ * Pass nextCursor back as ?cursor= to get the following page; it is null on the last page.
+ * Each page is an index range scan starting below the cursor id - no OFFSET, so page 1000
+ * costs the same as page 1.
+ */
+public record CursorPage<T>(List<T> items, Long nextCursor, boolean hasMore) {
+    
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+    
+    /**
+     * Build a page from rows fetched with limit + 1 (the extra row only tells whether more exist)
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, idOf.apply(items.get(limit - 1)), true);
+    }
+    
+    public static int checkLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
@@ -31,7 +31,7 @@ public class Instrument {
     @Column(nullable = false)
     private String instrumentType;  // e.g., "EQUITY", "DERIVATIVE"
     
-    @Column(nullable = false)
+    @Column(nullable = false, scale = Price.SCALE)
     private BigDecimal lastTradedPrice;  // Current price
     
     // Constructor without ID (for creating new instruments)
@@ -9,14 +9,23 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+// Composite indexes for keyset-paginated history: each page is one range scan of (user_id, [filter,] order_id)
+// A client order id is used at most once per user (NULLs do not collide)
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_user_id", columnList = "user_id, order_id"),
+    @Index(name = "idx_orders_user_status_id", columnList = "user_id, status, order_id"),
+    @Index(name = "idx_orders_user_symbol_id", columnList = "user_id, symbol, order_id"),
+    @Index(name = "uk_orders_user_client_order_id", columnList = "user_id, client_order_id", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence: ids are handed out in blocks of 50, so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long orderId;
     
     @Column(nullable = false)
@@ -33,6 +42,11 @@ public class Order {
     @Column(nullable = false)
     private Integer quantity;
     
+    // Quantity matched so far (LIMIT orders can fill in several parts)
+    @Column(nullable = false)
+    private Integer filledQuantity = 0;
+    
+    @Column(scale = Price.SCALE)
     private BigDecimal price;
     
     @Column(nullable = false)
@@ -46,6 +60,10 @@ public class Order {
     
     private String userId;
     
+    // Caller's own id for the order; sending it again returns this order instead of placing another
+    @Column(length = 64)
+    private String clientOrderId;
+    
     public enum OrderType {
         BUY, SELL
     }
@@ -55,6 +73,6 @@ public class Order {
     }
     
     public enum OrderStatus {
-        NEW, PLACED, EXECUTED, CANCELLED
+        NEW, PLACED, PARTIALLY_FILLED, EXECUTED, CANCELLED
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.bajaj.trading.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending Fill - The resting (maker) half of a book match that is not yet applied
+ * Saved in the taker's transaction, so once the taker's fill is committed the maker's fill is
+ * too; the maker's lane applies it and deletes the row in one transaction.
+ */
+@Entity
+@Table(name = "pending_fills", indexes = {
+    @Index(name = "idx_pending_fills_maker_order_id", columnList = "maker_order_id")
+})
+@Data
+@NoArgsConstructor
+public class PendingFill {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pending_fill_seq")
+    @SequenceGenerator(name = "pending_fill_seq", sequenceName = "pending_fill_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long makerOrderId;
+    
+    @Column(nullable = false)
+    private String makerUserId;
+    
+    @Column(nullable = false)
+    private Long takerOrderId;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(nullable = false)
+    private Long priceUnits;  // Trade price in Price units
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    public PendingFill(Long makerOrderId, String makerUserId, Long takerOrderId, int quantity, long priceUnits) {
+        this.makerOrderId = makerOrderId;
+        this.makerUserId = makerUserId;
+        this.takerOrderId = takerOrderId;
+        this.quantity = quantity;
+        this.priceUnits = priceUnits;
+        this.createdAt = LocalDateTime.now();
+    }
+}
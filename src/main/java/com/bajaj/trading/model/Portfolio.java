@@ -6,21 +6,24 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * Portfolio Entity - Represents user's stock holdings
  * Shows what stocks the user currently owns
  */
 @Entity
-@Table(name = "portfolio")
+// One row per (user, symbol); also the index behind every per-user holding lookup
+@Table(name = "portfolio", indexes = {
+    @Index(name = "uk_portfolio_user_symbol", columnList = "user_id, symbol", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Portfolio {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "portfolio_seq")
+    @SequenceGenerator(name = "portfolio_seq", sequenceName = "portfolio_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -32,28 +35,28 @@ public class Portfolio {
     @Column(nullable = false)
     private Integer quantity;  // How many shares owned
     
-    @Column(nullable = false)
+    @Column(nullable = false, scale = Price.SCALE)
     private BigDecimal averagePrice;  // Average buying price
     
-    @Column(nullable = false)
+    @Column(nullable = false, scale = Price.SCALE)
     private BigDecimal currentValue;  // Current market value
     
-    // Calculate current value based on latest price
-    public void updateCurrentValue(BigDecimal currentPrice) {
-        this.currentValue = currentPrice.multiply(BigDecimal.valueOf(quantity));
+    // Calculate current value based on latest price (in Price units)
+    public void updateCurrentValue(long currentPriceUnits) {
+        this.currentValue = Price.toBigDecimal(Price.multiply(currentPriceUnits, quantity));
     }
     
-    // Update holdings after a BUY trade
-    public void addShares(Integer qty, BigDecimal buyPrice) {
+    // Update holdings after a BUY trade (price in Price units)
+    public void addShares(Integer qty, long buyPriceUnits) {
         // Calculate new average price using weighted average
         // Formula: ((oldQty × oldPrice) + (newQty × newPrice)) / (oldQty + newQty)
+        // Done in fixed-point paise (long), rounded HALF_UP like the BigDecimal version
         
-        BigDecimal oldTotalValue = averagePrice.multiply(BigDecimal.valueOf(quantity));
-        BigDecimal newTotalValue = buyPrice.multiply(BigDecimal.valueOf(qty));
+        long newAverage = Price.weightedAverage(
+                Price.toUnits(averagePrice), quantity, buyPriceUnits, qty);
         
         this.quantity += qty;
-        this.averagePrice = oldTotalValue.add(newTotalValue)
-                .divide(BigDecimal.valueOf(this.quantity), 2, RoundingMode.HALF_UP);
+        this.averagePrice = Price.toBigDecimal(newAverage);
     }
     
     // Update holdings after a SELL trade
@@ -68,7 +71,7 @@ public class Portfolio {
         this.symbol = symbol;
         this.quantity = quantity;
         this.averagePrice = averagePrice;
-        this.currentValue = averagePrice.multiply(BigDecimal.valueOf(quantity));
+        this.currentValue = Price.toBigDecimal(Price.multiply(Price.toUnits(averagePrice), quantity));
     }
 }
 
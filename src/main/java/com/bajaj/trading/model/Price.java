@@ -0,0 +1,105 @@
+package com.bajaj.trading.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Price - Fixed-point amount stored as a long number of minor units (paise by default)
+ * 
+ * ₹2450.50 is held as 245050. Arithmetic stays in long with overflow checks
+ * (Math.multiplyExact / addExact), so the order and portfolio hot paths avoid BigDecimal.
+ * Convert with {@link #toBigDecimal} only where a value leaves the engine (JPA entities, JSON).
+ * 
+ * The scale is fixed at 2; the BigDecimal entity columns are declared with the same scale,
+ * so persisted prices are never rounded.
+ * 
+ * Static helpers on raw long units only; the arithmetic never allocates.
+ */
+public final class Price {
+    
+    public static final int SCALE = 2;
+    
+    private Price() {
+    }
+    
+    /**
+     * Convert to units, rounding HALF_UP if the value has more decimals than SCALE
+     * Throws ArithmeticException if the value does not fit in a long.
+     */
+    public static long toUnits(BigDecimal value) {
+        return toUnits(value, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Convert to units, failing if rounding would be needed
+     */
+    public static long toUnitsExact(BigDecimal value) {
+        return toUnits(value, RoundingMode.UNNECESSARY);
+    }
+    
+    private static long toUnits(BigDecimal value, RoundingMode roundingMode) {
+        // Shifting the decimal point keeps the compact (long) representation; unscaledValue() would inflate to a BigInteger
+        BigDecimal shifted = value.scaleByPowerOfTen(SCALE);
+        if (shifted.scale() != 0) {
+            shifted = shifted.setScale(0, roundingMode);
+        }
+        return shifted.longValueExact();
+    }
+    
+    /**
+     * True if the value can be represented without rounding
+     */
+    public static boolean isRepresentable(BigDecimal value) {
+        return value.stripTrailingZeros().scale() <= SCALE;
+    }
+    
+    public static BigDecimal toBigDecimal(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+    
+    /**
+     * price × quantity, e.g. the value of a trade or holding
+     */
+    public static long multiply(long priceUnits, long quantity) {
+        return Math.multiplyExact(priceUnits, quantity);
+    }
+    
+    /**
+     * Weighted average price after adding addQuantity @ addPrice to quantity @ averagePrice
+     * Rounded HALF_UP to the last unit, same as the BigDecimal formula it replaces.
+     */
+    public static long weightedAverage(long averageUnits, long quantity, long addUnits, long addQuantity) {
+        long totalQuantity = Math.addExact(quantity, addQuantity);
+        long totalValue = Math.addExact(multiply(averageUnits, quantity), multiply(addUnits, addQuantity));
+        return divideHalfUp(totalValue, totalQuantity);
+    }
+    
+    /**
+     * Integer division rounded HALF_UP (away from zero on a tie)
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
+
+/**
+ * INTERVIEW EXPLANATION:
+ * 
+ * Q: Why not double?
+ * A: double cannot represent 0.10 exactly, so money drifts
+ *    A long count of paise is exact, just like BigDecimal
+ * 
+ * Q: Then why not keep BigDecimal everywhere?
+ * A: Every BigDecimal multiply/divide creates new objects
+ *    On every fill that means garbage for the GC to collect
+ *    long arithmetic is a couple of CPU instructions and creates nothing
+ * 
+ * Q: What about overflow?
+ * A: Math.multiplyExact / addExact throw ArithmeticException instead of wrapping around
+ *    A long of paise holds up to ~₹92 quadrillion, far beyond any order
+ */
@@ -9,14 +9,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trades")
+@Table(name = "trades", indexes = {
+    @Index(name = "idx_trades_user_id", columnList = "user_id, trade_id"),
+    @Index(name = "idx_trades_user_symbol_id", columnList = "user_id, symbol, trade_id"),
+    @Index(name = "idx_trades_order_id", columnList = "order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Trade {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trade_seq")
+    @SequenceGenerator(name = "trade_seq", sequenceName = "trade_seq", allocationSize = 50)
     private Long tradeId;
     
     @Column(nullable = false)
@@ -32,10 +37,10 @@ public class Trade {
     @Column(nullable = false)
     private Integer quantity;
     
-    @Column(nullable = false)
+    @Column(nullable = false, scale = Price.SCALE)
     private BigDecimal executedPrice;
     
-    @Column(nullable = false)
+    @Column(nullable = false, scale = Price.SCALE)
     private BigDecimal totalValue;
     
     @Column(nullable = false)
@@ -44,13 +49,14 @@ public class Trade {
     private String userId;
     
     public Trade(Long orderId, String symbol, Order.OrderType tradeType, 
-                 Integer quantity, BigDecimal executedPrice, String userId) {
+                 Integer quantity, long executedPriceUnits, String userId) {
         this.orderId = orderId;
         this.symbol = symbol;
         this.tradeType = tradeType;
         this.quantity = quantity;
-        this.executedPrice = executedPrice;
-        this.totalValue = executedPrice.multiply(BigDecimal.valueOf(quantity));
+        // Both amounts come from the same units, so they are rounded alike
+        this.executedPrice = Price.toBigDecimal(executedPriceUnits);
+        this.totalValue = Price.toBigDecimal(Price.multiply(executedPriceUnits, quantity));
         this.executedAt = LocalDateTime.now();
         this.userId = userId;
     }
@@ -0,0 +1,46 @@
+package com.bajaj.trading.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Building blocks for history queries (orders, trades)
+ * A filter that is not given (null) adds no predicate at all, so the query keeps a plain equality
+ * / range shape and H2 can use the matching composite index, e.g. (user_id, status, order_id).
+ */
+public final class HistorySpecifications {
+    
+    private HistorySpecifications() {
+    }
+    
+    public static <T> Specification<T> ownedBy(String userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+    
+    /**
+     * Keyset condition: only rows with an id below the cursor (the last id of the previous page)
+     */
+    public static <T> Specification<T> before(String idAttribute, Long cursor) {
+        return (root, query, cb) -> cursor == null ? null : cb.lessThan(root.get(idAttribute), cursor);
+    }
+    
+    public static <T> Specification<T> equalTo(String attribute, Object value) {
+        return (root, query, cb) -> value == null ? null : cb.equal(root.get(attribute), value);
+    }
+    
+    /**
+     * from inclusive, to exclusive; either may be open
+     */
+    public static <T> Specification<T> between(String attribute, LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.and(cb.greaterThanOrEqualTo(root.get(attribute), from), cb.lessThan(root.get(attribute), to));
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            }
+            return to == null ? null : cb.lessThan(root.get(attribute), to);
+        };
+    }
+}
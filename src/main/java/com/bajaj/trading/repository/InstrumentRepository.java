@@ -7,6 +7,7 @@ import com.bajaj.trading.model.Trade;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +20,7 @@ public interface InstrumentRepository extends JpaRepository<Instrument, Long> {
     
     // Spring automatically implements this based on method name!
     // It generates SQL: SELECT * FROM instruments WHERE symbol = ?
+    
+    // Find several instruments in one query: SELECT * FROM instruments WHERE symbol IN (...)
+    List<Instrument> findBySymbolIn(Collection<String> symbols);
 }
\ No newline at end of file
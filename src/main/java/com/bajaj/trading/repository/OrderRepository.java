@@ -5,13 +5,16 @@ import com.bajaj.trading.model.Order;
 import com.bajaj.trading.model.Portfolio;
 import com.bajaj.trading.model.Trade;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     
     // Find all orders for a specific user
     List<Order> findByUserId(String userId);
@@ -21,4 +24,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     // Find user's orders with specific status
     List<Order> findByUserIdAndStatus(String userId, Order.OrderStatus status);
+    
+    // Order placed under a client order id (served by the unique (user_id, client_order_id) index)
+    Optional<Order> findByUserIdAndClientOrderId(String userId, String clientOrderId);
+    
+    List<Order> findByUserIdAndClientOrderIdIn(String userId, Collection<String> clientOrderIds);
+    
+    // Unfilled quantity of the user's open orders of one side in a symbol (served by the (user_id, status) index)
+    @Query("SELECT COALESCE(SUM(o.quantity - o.filledQuantity), 0) FROM Order o WHERE o.userId = :userId "
+            + "AND o.symbol = :symbol AND o.orderType = :type AND o.status IN :statuses")
+    long sumOpenQuantity(String userId, String symbol, Order.OrderType type, Collection<Order.OrderStatus> statuses);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.bajaj.trading.repository;
+
+import com.bajaj.trading.model.PendingFill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PendingFillRepository extends JpaRepository<PendingFill, Long> {
+    
+    // Oldest first, so fills of the same resting order are applied in match order
+    List<PendingFill> findAllByOrderByIdAsc();
+}
@@ -5,17 +5,24 @@ import com.bajaj.trading.model.Order;
 import com.bajaj.trading.model.Portfolio;
 import com.bajaj.trading.model.Trade;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TradeRepository extends JpaRepository<Trade, Long> {
+public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecificationExecutor<Trade> {
     
     // Find all trades for a user
     List<Trade> findByUserId(String userId);
     
-    // Find trade by original order ID
-    Optional<Trade> findByOrderId(Long orderId);
+    // Same, in the order they were booked (P&L replay)
+    List<Trade> findByUserIdOrderByTradeIdAsc(String userId);
+    
+    // Find trades by original order ID (one per fill)
+    List<Trade> findByOrderId(Long orderId);
+    
+    // Same, limited to the order's owner
+    List<Trade> findByUserIdAndOrderId(String userId, Long orderId);
 }
\ No newline at end of file
@@ -1,15 +1,27 @@
 package com.bajaj.trading.service;
 
+import com.bajaj.trading.cache.Quote;
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.event.PriceChangedEvent;
+import com.bajaj.trading.marketdata.InstrumentMasterLoader;
+import com.bajaj.trading.marketdata.InstrumentSearchIndex;
 import com.bajaj.trading.model.Instrument;
+import com.bajaj.trading.model.Price;
 import com.bajaj.trading.repository.InstrumentRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Instrument Service - Handles all instrument-related business logic
@@ -19,8 +31,15 @@ import java.util.Optional;
 @Slf4j  // Lombok: Adds logger (log.info(), log.error(), etc.)
 public class InstrumentService {
     
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    
     // Dependency Injection: Spring automatically provides this
     private final InstrumentRepository instrumentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuoteCache quoteCache;
+    private final InstrumentMasterLoader instrumentLoader;
+    private final InstrumentSearchIndex searchIndex;
     
     /**
      * Get all available instruments
@@ -31,43 +50,92 @@ public class InstrumentService {
     }
     
     /**
-     * Get instrument by symbol
+     * Symbol prefix search for autocomplete, optionally filtered by exchange / type (in memory)
+     */
+    public List<InstrumentSearchIndex.Entry> searchInstruments(String query, String exchange, String type,
+                                                               Integer limit) {
+        int max = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (max < 1 || max > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return searchIndex.search(query, exchange, type, max);
+    }
+    
+    /**
+     * Get instrument by symbol (served from the quote cache)
      */
     public Optional<Instrument> getInstrumentBySymbol(String symbol) {
         log.info("Fetching instrument: {}", symbol);
-        return instrumentRepository.findBySymbol(symbol);
+        return quoteCache.get(symbol).map(Quote::toInstrument);
     }
     
     /**
-     * Initialize sample instruments when application starts
-     * This runs once when the app starts
+     * Quote cache statistics (hits, misses, invalidations)
      */
-    @PostConstruct
-    public void initializeInstruments() {
-        // Check if instruments already exist
-        if (instrumentRepository.count() > 0) {
-            log.info("Instruments already initialized");
-            return;
+    public QuoteCache.CacheStats getQuoteCacheStats() {
+        return quoteCache.getStats();
+    }
+    
+    /**
+     * Explicitly invalidate one cached quote, or all of them when symbol is null
+     */
+    public void invalidateQuotes(String symbol) {
+        if (symbol == null) {
+            quoteCache.invalidateAll();
+        } else {
+            quoteCache.invalidate(symbol);
+        }
+    }
+    
+    /**
+     * Apply a batch of latest prices (symbol → price) in one transaction
+     * Used by the market data feed: one query + one saveAll per batch instead of one update per tick.
+     * Unknown symbols are ignored, and so are prices that are not positive or not representable
+     * (more than Price.SCALE decimals): they would otherwise sweep the book at a bogus price.
+     * Returns the symbols that are not instruments.
+     */
+    @Transactional
+    public Set<String> updateLastTradedPrices(Map<String, BigDecimal> prices) {
+        Map<String, BigDecimal> valid = new HashMap<>(prices);
+        valid.values().removeIf(price -> price == null || price.signum() <= 0 || !Price.isRepresentable(price));
+        if (valid.size() < prices.size()) {
+            log.warn("Ignored {} invalid price(s) in a batch of {}", prices.size() - valid.size(), prices.size());
         }
+        List<Instrument> instruments = instrumentRepository.findBySymbolIn(valid.keySet());
         
-        log.info("Initializing sample instruments...");
+        for (Instrument instrument : instruments) {
+            instrument.setLastTradedPrice(valid.get(instrument.getSymbol()));
+        }
+        instrumentRepository.saveAll(instruments);
         
-        // Create sample stocks
-        List<Instrument> instruments = List.of(
-            new Instrument("RELIANCE", "NSE", "EQUITY", new BigDecimal("2450.50")),
-            new Instrument("TCS", "NSE", "EQUITY", new BigDecimal("3520.75")),
-            new Instrument("INFY", "NSE", "EQUITY", new BigDecimal("1450.25")),
-            new Instrument("HDFCBANK", "NSE", "EQUITY", new BigDecimal("1625.00")),
-            new Instrument("ICICIBANK", "NSE", "EQUITY", new BigDecimal("975.50")),
-            new Instrument("WIPRO", "NSE", "EQUITY", new BigDecimal("420.80")),
-            new Instrument("BHARTIARTL", "NSE", "EQUITY", new BigDecimal("850.60")),
-            new Instrument("ITC", "NSE", "EQUITY", new BigDecimal("425.30")),
-            new Instrument("SBIN", "NSE", "EQUITY", new BigDecimal("580.45")),
-            new Instrument("BAJFINANCE", "NSE", "EQUITY", new BigDecimal("6850.00"))
-        );
+        for (Instrument instrument : instruments) {
+            eventPublisher.publishEvent(new PriceChangedEvent(instrument.getSymbol(), instrument.getLastTradedPrice()));
+        }
         
-        instrumentRepository.saveAll(instruments);
-        log.info("Initialized {} instruments", instruments.size());
+        Set<String> unknown = new HashSet<>(valid.keySet());
+        for (Instrument instrument : instruments) {
+            unknown.remove(instrument.getSymbol());
+        }
+        if (!unknown.isEmpty()) {
+            log.debug("Ignored {} price(s) for unknown symbols", unknown.size());
+        }
+        return unknown;
+    }
+    
+    /**
+     * Re-read the instrument master and apply what changed, without blocking readers
+     */
+    public InstrumentMasterLoader.LoadResult reloadInstruments() {
+        return instrumentLoader.reload();
+    }
+    
+    /**
+     * Load the instrument master (trading.instruments.file) when the application starts
+     * This runs once when the app starts; a table that already has instruments is left alone
+     */
+    @PostConstruct
+    public void initializeInstruments() {
+        instrumentLoader.loadIfEmpty();
     }
 }
 
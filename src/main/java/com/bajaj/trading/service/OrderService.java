@@ -1,21 +1,63 @@
 package com.bajaj.trading.service;
 
-import com.bajaj.trading.model.Instrument;
+import com.bajaj.trading.cache.ClientOrderIdCache;
+import com.bajaj.trading.cache.Quote;
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.engine.AccountLanes;
+import com.bajaj.trading.engine.BookOrder;
+import com.bajaj.trading.engine.Fill;
+import com.bajaj.trading.engine.MatchingEngine;
+import com.bajaj.trading.engine.PortfolioValuationEngine;
+import com.bajaj.trading.engine.RiskEngine;
+import com.bajaj.trading.event.OrderUpdatedEvent;
+import com.bajaj.trading.event.PriceChangedEvent;
+import com.bajaj.trading.journal.EventJournal;
+import com.bajaj.trading.journal.JournalRecord;
+import com.bajaj.trading.metrics.OrderMetrics;
+import com.bajaj.trading.metrics.OrderTimelines;
+import com.bajaj.trading.model.CursorPage;
 import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.PendingFill;
 import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.model.Price;
 import com.bajaj.trading.model.Trade;
-import com.bajaj.trading.repository.InstrumentRepository;
 import com.bajaj.trading.repository.OrderRepository;
+import com.bajaj.trading.repository.PendingFillRepository;
 import com.bajaj.trading.repository.PortfolioRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static com.bajaj.trading.repository.HistorySpecifications.before;
+import static com.bajaj.trading.repository.HistorySpecifications.between;
+import static com.bajaj.trading.repository.HistorySpecifications.equalTo;
+import static com.bajaj.trading.repository.HistorySpecifications.ownedBy;
 
 @Service
 @RequiredArgsConstructor
@@ -23,46 +65,218 @@ import java.util.Optional;
 public class OrderService {
     
     private final OrderRepository orderRepository;
-    private final InstrumentRepository instrumentRepository;
+    private final QuoteCache quoteCache;
     private final PortfolioRepository portfolioRepository;
     private final TradeService tradeService;
+    private final MatchingEngine matchingEngine;
+    private final PortfolioValuationEngine valuationEngine;
+    private final AccountLanes accountLanes;
+    private final TransactionTemplate transactionTemplate;
+    private final EventJournal journal;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderMetrics orderMetrics;
+    private final OrderTimelines timelines;
+    private final RiskEngine riskEngine;
+    private final ClientOrderIdCache clientOrderIds;
+    private final PendingFillRepository pendingFillRepository;
+    
+    // Maker fills: attempts on the lane, first pause (doubled per attempt) and longest pause
+    private static final int MAKER_FILL_ATTEMPTS = 10;
+    private static final long MAKER_FILL_RETRY_MS = 100;
+    private static final long MAKER_FILL_RETRY_MAX_MS = 30_000;
+    
+    private static final Pattern CLIENT_ORDER_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+    private static final Set<Order.OrderStatus> OPEN_STATUSES =
+            EnumSet.of(Order.OrderStatus.PLACED, Order.OrderStatus.PARTIALLY_FILLED);
     
-    // Hardcoded user for this assignment
-    private static final String DEFAULT_USER_ID = "user123";
+    private final ScheduledExecutorService fillRetries = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "maker-fill-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * Place a new order for a user
+     * Runs on the user's account lane and commits there, so orders of the same user never
+     * interleave (no two SELLs can both pass the holdings check) while other users run in parallel.
+     * 
+     * An order with a clientOrderId that was used before is not placed again: the order placed
+     * the first time is returned as it is now, without validation or execution.
+     */
+    public Order placeOrder(String userId, Order orderRequest) {
+        long start = System.nanoTime();
+        String clientOrderId = checkClientOrderId(orderRequest.getClientOrderId());
+        if (clientOrderId != null) {
+            // Retries within the cache window are answered here, before the risk checks and the lane
+            Long originalId = clientOrderIds.get(userId, clientOrderId);
+            Optional<Order> original = originalId == null ? Optional.empty() : getOrderById(userId, originalId);
+            if (original.isPresent()) {
+                log.info("Order {} already placed as {}", clientOrderId, originalId);
+                return original.get();
+            }
+        }
+        
+        // Pre-trade limits are checked before waiting for the lane, so a breach is refused at once
+        RiskEngine.Reservation reservation = riskEngine.reserve(userId, orderRequest);
+        long laneStart = System.nanoTime();
+        orderMetrics.recordStageNanos(OrderMetrics.Stage.RISK_CHECK, laneStart - start);
+        
+        // The transaction ensures all database operations succeed or rollback together
+        Order order;
+        try {
+            order = accountLanes.execute(userId, () -> {
+                orderMetrics.recordStage(OrderMetrics.Stage.LANE_WAIT, laneStart);
+                // Older or concurrent retries: the lane orders them after the first, so this sees it committed
+                Optional<Order> original = clientOrderId == null
+                        ? Optional.empty() : orderRepository.findByUserIdAndClientOrderId(userId, clientOrderId);
+                if (original.isPresent()) {
+                    riskEngine.cancel(reservation);
+                    clientOrderIds.put(userId, clientOrderId, original.get().getOrderId(), System.currentTimeMillis());
+                    log.info("Order {} already placed as {}", clientOrderId, original.get().getOrderId());
+                    return original.get();
+                }
+                Order placed = executeTimed(
+                        status -> placeOrder(userId, orderRequest, reservation, new Holdings(), start));
+                timelines.commit();
+                return placed;
+            });
+        } catch (RuntimeException e) {
+            riskEngine.cancel(reservation);
+            throw e;
+        }
+        orderMetrics.recordLatency(order.getOrderStyle(), start);
+        return order;
+    }
     
     /**
-     * Place a new order with validations
+     * Place a basket of orders for a user in one transaction, on the user's account lane
+     * Each order is validated and executed in sequence; an order that fails validation is
+     * reported as REJECTED and does not stop the others. Inserts and updates for the whole
+     * basket are flushed together, so Hibernate sends them as JDBC batches.
      */
-    @Transactional  // Ensures all database operations succeed or rollback together
-    public Order placeOrder(Order orderRequest) {
+    public List<OrderResult> placeOrders(String userId, List<Order> orderRequests) {
+        log.info("Placing basket of {} orders", orderRequests.size());
+        
+        long start = System.nanoTime();
+        return accountLanes.execute(userId, () -> {
+            orderMetrics.recordStage(OrderMetrics.Stage.LANE_WAIT, start);
+            return executeTimed(status -> placeBasket(userId, orderRequests, start));
+        });
+    }
+    
+    private List<OrderResult> placeBasket(String userId, List<Order> orderRequests, long receivedNanos) {
+        // One query for all of the user's holdings instead of one per order
+        Holdings holdings = new Holdings();
+        holdings.preload(userId);
+        
+        // Orders placed before under the basket's client order ids, in one query
+        Map<String, Order> placedByClientId = new HashMap<>();
+        List<String> clientIds = orderRequests.stream().filter(Objects::nonNull)
+                .map(Order::getClientOrderId).filter(Objects::nonNull).toList();
+        if (!clientIds.isEmpty()) {
+            for (Order order : orderRepository.findByUserIdAndClientOrderIdIn(userId, clientIds)) {
+                placedByClientId.put(order.getClientOrderId(), order);
+            }
+        }
+        
+        List<OrderResult> results = new ArrayList<>(orderRequests.size());
+        for (int i = 0; i < orderRequests.size(); i++) {
+            if (orderRequests.get(i) == null) {
+                results.add(OrderResult.rejected(i, "Order must not be null"));
+                continue;
+            }
+            RiskEngine.Reservation reservation = RiskEngine.Reservation.NONE;
+            try {
+                String clientOrderId = checkClientOrderId(orderRequests.get(i).getClientOrderId());
+                Order original = clientOrderId == null ? null : placedByClientId.get(clientOrderId);
+                if (original != null) {
+                    results.add(OrderResult.accepted(i, original));
+                    continue;
+                }
+                reservation = riskEngine.reserve(userId, orderRequests.get(i));
+                Order placed = placeOrder(userId, orderRequests.get(i), reservation, holdings, receivedNanos);
+                if (clientOrderId != null) {
+                    placedByClientId.put(clientOrderId, placed);
+                }
+                results.add(OrderResult.accepted(i, placed));
+                timelines.end();
+            } catch (IllegalArgumentException e) {
+                riskEngine.cancel(reservation);
+                log.warn("Basket order {} rejected: {}", i, e.getMessage());
+                results.add(OrderResult.rejected(i, e.getMessage()));
+            } catch (RuntimeException e) {
+                riskEngine.cancel(reservation);
+                throw e;
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Run work in a transaction and time its commit (where Hibernate flushes the inserts)
+     */
+    private <T> T executeTimed(TransactionCallback<T> work) {
+        long[] workDone = new long[1];
+        T result = transactionTemplate.execute(status -> {
+            T value = work.doInTransaction(status);
+            workDone[0] = System.nanoTime();
+            return value;
+        });
+        orderMetrics.recordStage(OrderMetrics.Stage.COMMIT, workDone[0]);
+        return result;
+    }
+    
+    private Order placeOrder(String userId, Order orderRequest, RiskEngine.Reservation reservation,
+                             Holdings holdings, long receivedNanos) {
+        timelines.begin(receivedNanos);
         log.info("Placing order: {} {} {} shares at {}", 
                 orderRequest.getOrderType(), orderRequest.getSymbol(), 
                 orderRequest.getQuantity(), orderRequest.getPrice());
         
         // ========== VALIDATIONS ==========
         
-        // 1. Validate quantity
+        long validationStart = System.nanoTime();
+        
+        // 1. Validate side and style (the JSON may leave them out)
+        if (orderRequest.getOrderType() == null || orderRequest.getOrderStyle() == null) {
+            orderMetrics.rejected(OrderMetrics.RejectReason.MISSING_TYPE_OR_STYLE);
+            throw new IllegalArgumentException("orderType (BUY / SELL) and orderStyle (MARKET / LIMIT) are required");
+        }
+        
+        // 2. Validate quantity
         if (orderRequest.getQuantity() == null || orderRequest.getQuantity() <= 0) {
+            orderMetrics.rejected(OrderMetrics.RejectReason.INVALID_QUANTITY);
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
         
-        // 2. Validate instrument exists
-        Optional<Instrument> instrument = instrumentRepository.findBySymbol(orderRequest.getSymbol());
-        if (instrument.isEmpty()) {
+        // 3. Validate instrument exists (served from the quote cache, no SQL on a hit)
+        long lookupStart = System.nanoTime();
+        Optional<Quote> quote = quoteCache.get(orderRequest.getSymbol());
+        long lookupNanos = System.nanoTime() - lookupStart;
+        orderMetrics.recordStageNanos(OrderMetrics.Stage.INSTRUMENT_LOOKUP, lookupNanos);
+        if (quote.isEmpty()) {
+            orderMetrics.rejected(OrderMetrics.RejectReason.UNKNOWN_SYMBOL);
             throw new IllegalArgumentException("Invalid instrument symbol: " + orderRequest.getSymbol());
         }
         
-        // 3. Validate price for LIMIT orders
+        // 4. Validate price for LIMIT orders
         if (orderRequest.getOrderStyle() == Order.OrderStyle.LIMIT) {
             if (orderRequest.getPrice() == null || orderRequest.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+                orderMetrics.rejected(OrderMetrics.RejectReason.MISSING_PRICE);
                 throw new IllegalArgumentException("Price must be specified for LIMIT orders");
             }
+            if (!Price.isRepresentable(orderRequest.getPrice())) {
+                orderMetrics.rejected(OrderMetrics.RejectReason.INVALID_PRICE_SCALE);
+                throw new IllegalArgumentException("Price can have at most " + Price.SCALE + " decimal places");
+            }
         }
         
-        // 4. For SELL orders, check if user has sufficient quantity
+        // 5. For SELL orders, check if user has sufficient quantity
         if (orderRequest.getOrderType() == Order.OrderType.SELL) {
-            validateSufficientHoldings(orderRequest.getSymbol(), orderRequest.getQuantity());
+            validateSufficientHoldings(userId, orderRequest.getSymbol(), orderRequest.getQuantity(), holdings);
         }
+        orderMetrics.recordStageNanos(OrderMetrics.Stage.VALIDATION, System.nanoTime() - validationStart - lookupNanos);
+        timelines.mark(OrderTimelines.Mark.VALIDATED, orderRequest);
         
         // ========== CREATE ORDER ==========
         Order order = new Order();
@@ -73,127 +287,520 @@ public class OrderService {
         order.setPrice(orderRequest.getPrice());
         order.setStatus(Order.OrderStatus.NEW);
         order.setCreatedAt(LocalDateTime.now());
-        order.setUserId(DEFAULT_USER_ID);
+        order.setUserId(userId);
+        order.setClientOrderId(orderRequest.getClientOrderId());
         
         // Save order
+        long saveStart = System.nanoTime();
         order = orderRepository.save(order);
+        if (order.getOrderType() == Order.OrderType.SELL) {
+            holdings.addOpenSell(userId, order.getSymbol(), order.getQuantity());
+        }
+        journal.append(JournalRecord.accepted(order));
+        riskEngine.track(order, reservation);
+        if (order.getClientOrderId() != null) {
+            clientOrderIds.onAccepted(order);
+        }
+        orderMetrics.recordStage(OrderMetrics.Stage.ORDER_SAVE, saveStart);
+        orderMetrics.accepted(order);
+        timelines.identify(order);
+        timelines.mark(OrderTimelines.Mark.PERSISTED, order);
         log.info("Order created with ID: {}", order.getOrderId());
         
         // ========== AUTO-EXECUTE MARKET ORDERS ==========
         if (order.getOrderStyle() == Order.OrderStyle.MARKET) {
-            executeOrder(order, instrument.get());
+            executeOrder(order, quote.get().lastTradedPrice(), holdings);
         } else {
-            // LIMIT orders stay in PLACED status
+            // LIMIT orders go to the order book and match against resting orders
             order.setStatus(Order.OrderStatus.PLACED);
             orderRepository.save(order);
-            log.info("LIMIT order placed, waiting for execution");
+            eventPublisher.publishEvent(OrderUpdatedEvent.of(order, null, null));
+            
+            long matchStart = System.nanoTime();
+            List<Fill> fills = matchingEngine.submit(order);
+            orderMetrics.recordStage(OrderMetrics.Stage.MATCHING, matchStart);
+            for (Fill fill : fills) {
+                applyFill(order, fill, holdings);
+            }
+            
+            // Whatever is left executes right away if the market is already through the limit
+            if (order.getStatus() != Order.OrderStatus.EXECUTED) {
+                executeTriggered(order.getSymbol(), quote.get().lastTradedPrice(), holdings);
+            }
+            
+            if (fills.isEmpty() && order.getStatus() == Order.OrderStatus.PLACED) {
+                log.info("LIMIT order placed, waiting for execution");
+            } else {
+                log.info("LIMIT order {} matched {} time(s), status {}", 
+                        order.getOrderId(), fills.size(), order.getStatus());
+            }
         }
         
         return order;
     }
     
     /**
-     * Execute an order (called for MARKET orders)
+     * Cancel one of the user's open LIMIT orders (empty when the user has no such order)
+     * Runs on the user's lane, so it never overlaps the order's own placement or the fills applied
+     * to it. The book decides the race with other users' orders: whatever is still resting when
+     * the cancel takes it out is cancelled; an order already matched or triggered is not.
      */
-    private void executeOrder(Order order, Instrument instrument) {
+    public Optional<Order> cancelOrder(String userId, Long orderId) {
+        return accountLanes.execute(userId, () -> transactionTemplate.execute(status ->
+            getOrderById(userId, orderId).map(order -> {
+                checkOpenLimitOrder(order, "cancelled");
+                int resting = matchingEngine.cancel(order);
+                if (resting < 0) {
+                    throw new IllegalArgumentException(
+                            "Order " + orderId + " is being executed and can no longer be cancelled");
+                }
+                
+                order.setStatus(Order.OrderStatus.CANCELLED);
+                orderRepository.save(order);
+                journal.append(JournalRecord.cancelled(order));
+                riskEngine.onCancel(order);
+                eventPublisher.publishEvent(OrderUpdatedEvent.of(order, null, null));
+                log.info("Order {} cancelled with {} share(s) unfilled", orderId, resting);
+                return order;
+            })));
+    }
+    
+    /**
+     * Change the limit price and / or total quantity of one of the user's open LIMIT orders
+     * Lowering only the quantity keeps the order's place in the queue; any other change sends it
+     * to the back of its new price level and matches it like a new order. Risk checks run on the
+     * new terms. Empty when the user has no such order.
+     */
+    public Optional<Order> modifyOrder(String userId, Long orderId, Order changes) {
+        return accountLanes.execute(userId, () -> transactionTemplate.execute(status ->
+            getOrderById(userId, orderId).map(order -> modify(order, changes))));
+    }
+    
+    private Order modify(Order order, Order changes) {
+        checkOpenLimitOrder(order, "modified");
+        BigDecimal price = changes.getPrice() != null ? changes.getPrice() : order.getPrice();
+        int quantity = changes.getQuantity() != null ? changes.getQuantity() : order.getQuantity();
+        if (price.compareTo(BigDecimal.ZERO) <= 0 || !Price.isRepresentable(price)) {
+            throw new IllegalArgumentException("Price must be positive with at most " + Price.SCALE + " decimal places");
+        }
+        Holdings holdings = new Holdings();
+        if (order.getOrderType() == Order.OrderType.SELL && quantity > order.getQuantity()) {
+            // The order already counts among the open SELLs with its current size: check only the increase
+            validateSufficientHoldings(order.getUserId(), order.getSymbol(), quantity - order.getQuantity(), holdings);
+        }
+        
+        List<Fill> fills = matchingEngine.modify(order, Price.toUnits(price), quantity,
+                (resting, newResting) -> riskEngine.amend(order, price, resting, newResting));
+        if (fills == null) {
+            throw new IllegalArgumentException(
+                    "Order " + order.getOrderId() + " is being executed and can no longer be modified");
+        }
+        
+        order.setPrice(price);
+        order.setQuantity(quantity);
+        orderRepository.save(order);
+        journal.append(JournalRecord.modified(order));
+        eventPublisher.publishEvent(OrderUpdatedEvent.of(order, null, null));
+        log.info("Order {} modified to {} @ {}, matched {} time(s)", order.getOrderId(), quantity, price, fills.size());
+        
+        for (Fill fill : fills) {
+            applyFill(order, fill, holdings);
+        }
+        if (order.getStatus() != Order.OrderStatus.EXECUTED) {
+            quoteCache.get(order.getSymbol()).ifPresent(
+                    quote -> executeTriggered(order.getSymbol(), quote.lastTradedPrice(), holdings));
+        }
+        return order;
+    }
+    
+    private static void checkOpenLimitOrder(Order order, String action) {
+        if (order.getOrderStyle() != Order.OrderStyle.LIMIT
+                || (order.getStatus() != Order.OrderStatus.PLACED
+                    && order.getStatus() != Order.OrderStatus.PARTIALLY_FILLED)) {
+            throw new IllegalArgumentException(String.format("Order %d is a %s order in status %s and cannot be %s",
+                    order.getOrderId(), order.getOrderStyle(), order.getStatus(), action));
+        }
+    }
+    
+    /**
+     * Execute resting LIMIT orders when the market price moves through them
+     * Runs once the price update has committed; each order then executes on its owner's lane,
+     * and goes back to the book if that execution rolls back.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        List<BookOrder> triggered = matchingEngine.trigger(event.symbol(), event.lastTradedPrice());
+        for (BookOrder bookOrder : triggered) {
+            accountLanes.submit(bookOrder.getUserId(), () -> transactionTemplate.executeWithoutResult(status -> {
+                matchingEngine.reinstateOnRollback(event.symbol(), bookOrder);
+                executeTriggered(bookOrder, event.lastTradedPrice(), new Holdings());
+            }));
+        }
+        if (!triggered.isEmpty()) {
+            log.info("{} LIMIT order(s) of {} triggered at {}", triggered.size(), event.symbol(), event.lastTradedPrice());
+        }
+    }
+    
+    /**
+     * Execute every resting order of a symbol crossed by the given market price
+     * Only the crossed orders are pulled from the book; the rest is never scanned.
+     */
+    private void executeTriggered(String symbol, BigDecimal marketPrice, Holdings holdings) {
+        List<BookOrder> triggered = matchingEngine.trigger(symbol, marketPrice);
+        for (BookOrder bookOrder : triggered) {
+            onAccountLane(bookOrder.getUserId(), holdings, laneHoldings -> {
+                matchingEngine.reinstateOnRollback(symbol, bookOrder);
+                executeTriggered(bookOrder, marketPrice, laneHoldings);
+            });
+        }
+        if (!triggered.isEmpty()) {
+            log.info("{} LIMIT order(s) of {} triggered at {}", triggered.size(), symbol, marketPrice);
+        }
+    }
+    
+    private void executeTriggered(BookOrder bookOrder, BigDecimal marketPrice, Holdings holdings) {
+        orderRepository.findById(bookOrder.getOrderId())
+            .ifPresentOrElse(
+                order -> executeOrder(order, marketPrice, holdings),
+                () -> log.warn("Triggered order {} not found", bookOrder.getOrderId())
+            );
+    }
+    
+    /**
+     * Execute an order at the market price (MARKET orders, and LIMIT orders the price has crossed)
+     */
+    private void executeOrder(Order order, BigDecimal executionPrice, Holdings holdings) {
         log.info("Executing order: {}", order.getOrderId());
         
-        // Get execution price
-        BigDecimal executionPrice = instrument.getLastTradedPrice();
+        // Fill whatever is still open at the market price
+        recordFill(order, order.getQuantity() - order.getFilledQuantity(), Price.toUnits(executionPrice), false,
+                holdings);
+        
+        log.info("Order {} executed successfully", order.getOrderId());
+    }
+    
+    /**
+     * Apply one order book match to both the incoming and the resting order
+     * The resting order belongs to another account, so its half is applied on that account's lane:
+     * inline when this is that lane, otherwise from a pending row saved with the taker's fill.
+     */
+    private void applyFill(Order taker, Fill fill, Holdings holdings) {
+        long fillPrice = fill.price();
+        recordFill(taker, fill.quantity(), fillPrice, false, holdings);
         
+        if (accountLanes.isOnLaneOf(fill.makerUserId())) {
+            recordMakerFill(fill.makerOrderId(), fill.quantity(), fillPrice, holdings);
+        } else {
+            // The book has already taken the maker's quantity: its half commits with the taker's as a
+            // pending row, which the maker's lane applies once this transaction commits
+            PendingFill pending = pendingFillRepository.save(new PendingFill(fill.makerOrderId(),
+                    fill.makerUserId(), taker.getOrderId(), fill.quantity(), fillPrice));
+            accountLanes.submitAfterCommit(fill.makerUserId(),
+                    () -> applyPendingFill(pending.getId(), fill.makerUserId(), 1));
+        }
+    }
+    
+    private void recordMakerFill(long makerOrderId, int quantity, long priceUnits, Holdings holdings) {
+        Order maker = orderRepository.findById(makerOrderId)
+            .orElseThrow(() -> new IllegalStateException("Resting order not found: " + makerOrderId));
+        recordFill(maker, quantity, priceUnits, true, holdings);
+    }
+    
+    /**
+     * Apply a pending maker fill on the maker's lane and delete its row in the same transaction
+     * A failed attempt is counted and queued on the lane again after a growing pause; after the last
+     * attempt the row stays and is applied at the next start.
+     */
+    private void applyPendingFill(Long pendingFillId, String makerUserId, int attempt) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                pendingFillRepository.findById(pendingFillId).ifPresent(pending -> {
+                    recordMakerFill(pending.getMakerOrderId(), pending.getQuantity(), pending.getPriceUnits(),
+                            new Holdings());
+                    pendingFillRepository.delete(pending);
+                }));
+        } catch (RuntimeException e) {
+            if (attempt >= MAKER_FILL_ATTEMPTS) {
+                orderMetrics.makerFillFailed(false);
+                log.error("Pending fill {} failed {} times, left for the next start", pendingFillId, attempt, e);
+                return;
+            }
+            orderMetrics.makerFillFailed(true);
+            long pauseMs = Math.min(MAKER_FILL_RETRY_MS << (attempt - 1), MAKER_FILL_RETRY_MAX_MS);
+            log.warn("Pending fill {} failed (attempt {}), retrying in {} ms", pendingFillId, attempt, pauseMs, e);
+            fillRetries.schedule(() -> accountLanes.submit(makerUserId,
+                    () -> applyPendingFill(pendingFillId, makerUserId, attempt + 1)), pauseMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Apply the maker fills a previous run committed but did not get to apply
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void applyPendingFills() {
+        List<PendingFill> pending = pendingFillRepository.findAllByOrderByIdAsc();
+        for (PendingFill fill : pending) {
+            accountLanes.submit(fill.getMakerUserId(), () -> applyPendingFill(fill.getId(), fill.getMakerUserId(), 1));
+        }
+        if (!pending.isEmpty()) {
+            log.info("Applying {} pending maker fill(s)", pending.size());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        fillRetries.shutdownNow();
+    }
+    
+    /**
+     * Run account work on the account's lane
+     * Inline (same transaction) when the caller already owns that lane; otherwise queued on the
+     * owner's lane in its own transaction once the current one commits. Never blocks on another lane.
+     */
+    private void onAccountLane(String userId, Holdings holdings, Consumer<Holdings> work) {
+        if (accountLanes.isOnLaneOf(userId)) {
+            work.accept(holdings);
+        } else {
+            accountLanes.submitAfterCommit(userId, () -> transactionTemplate.executeWithoutResult(
+                    status -> work.accept(new Holdings())));
+        }
+    }
+    
+    /**
+     * Record a (full or partial) fill: order status, trade record and portfolio
+     * The price stays in Price units down to the trade and portfolio; resting = the order is the
+     * passive side of a book match (its trade is not counted in candles)
+     */
+    private void recordFill(Order order, int quantity, long priceUnits, boolean resting, Holdings holdings) {
         // Update order status
-        order.setStatus(Order.OrderStatus.EXECUTED);
-        order.setExecutedAt(LocalDateTime.now());
+        order.setFilledQuantity(order.getFilledQuantity() + quantity);
+        if (order.getFilledQuantity().equals(order.getQuantity())) {
+            order.setStatus(Order.OrderStatus.EXECUTED);
+            order.setExecutedAt(LocalDateTime.now());
+        } else if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+            // A book match made just before a cancel reaches its owner's lane after it
+            order.setStatus(Order.OrderStatus.PARTIALLY_FILLED);
+        }
         orderRepository.save(order);
+        if (order.getOrderType() == Order.OrderType.SELL) {
+            holdings.addOpenSell(order.getUserId(), order.getSymbol(), -quantity);
+        }
+        riskEngine.onFill(order, quantity, priceUnits);
+        timelines.mark(OrderTimelines.Mark.EXECUTED, order);
         
         // Create trade record
-        Trade trade = tradeService.createTrade(order, executionPrice);
+        long tradeStart = System.nanoTime();
+        Trade trade = tradeService.createTrade(order, priceUnits, quantity, resting);
+        journal.append(JournalRecord.filled(trade));
+        orderMetrics.recordStage(OrderMetrics.Stage.TRADE_CREATE, tradeStart);
+        timelines.mark(OrderTimelines.Mark.TRADE_PERSISTED, order);
+        eventPublisher.publishEvent(OrderUpdatedEvent.of(order, quantity, trade.getExecutedPrice()));
         log.info("Trade created: {}", trade.getTradeId());
         
         // Update portfolio
-        updatePortfolio(order, executionPrice);
-        
-        log.info("Order {} executed successfully", order.getOrderId());
+        long portfolioStart = System.nanoTime();
+        updatePortfolio(order, quantity, priceUnits, holdings);
+        orderMetrics.recordStage(OrderMetrics.Stage.PORTFOLIO_UPDATE, portfolioStart);
+        timelines.mark(OrderTimelines.Mark.PORTFOLIO_UPDATED, order);
     }
     
     /**
      * Update user's portfolio after order execution
      */
-    private void updatePortfolio(Order order, BigDecimal executionPrice) {
+    private void updatePortfolio(Order order, int quantity, long priceUnits, Holdings holdings) {
         String userId = order.getUserId();
         String symbol = order.getSymbol();
         
-        Optional<Portfolio> existingHolding = portfolioRepository.findByUserIdAndSymbol(userId, symbol);
+        Optional<Portfolio> existingHolding = holdings.find(userId, symbol);
+        Portfolio portfolio = null;
         
         if (order.getOrderType() == Order.OrderType.BUY) {
             // BUY: Add shares to portfolio
             if (existingHolding.isPresent()) {
-                Portfolio portfolio = existingHolding.get();
-                portfolio.addShares(order.getQuantity(), executionPrice);
-                portfolioRepository.save(portfolio);
+                portfolio = existingHolding.get();
+                portfolio.addShares(quantity, priceUnits);
                 log.info("Updated portfolio: {} shares of {}", portfolio.getQuantity(), symbol);
             } else {
                 // Create new portfolio entry
-                Portfolio portfolio = new Portfolio(userId, symbol, order.getQuantity(), executionPrice);
-                portfolio.updateCurrentValue(executionPrice);
-                portfolioRepository.save(portfolio);
+                if (holdings.wasDeleted(userId, symbol)) {
+                    // Hibernate flushes inserts before deletes: write the pending delete first,
+                    // or the new row would collide with it on the (user_id, symbol) unique index
+                    portfolioRepository.flush();
+                }
+                portfolio = new Portfolio(userId, symbol, quantity, Price.toBigDecimal(priceUnits));
+                portfolio = portfolioRepository.save(portfolio);
+                holdings.put(userId, symbol, portfolio);
                 log.info("Created new portfolio entry for {}", symbol);
             }
         } else {
-            // SELL: Remove shares from portfolio
-            if (existingHolding.isPresent()) {
-                Portfolio portfolio = existingHolding.get();
-                portfolio.removeShares(order.getQuantity());
-                
-                // If all shares sold, delete portfolio entry
-                if (portfolio.getQuantity() == 0) {
-                    portfolioRepository.delete(portfolio);
-                    log.info("Removed {} from portfolio (sold all shares)", symbol);
-                } else {
-                    portfolioRepository.save(portfolio);
-                    log.info("Updated portfolio: {} shares remaining of {}", portfolio.getQuantity(), symbol);
-                }
+            // SELL: Remove shares from portfolio (open SELLs are capped by the holding, so this never goes negative)
+            int held = existingHolding.map(Portfolio::getQuantity).orElse(0);
+            if (held < quantity) {
+                throw new IllegalStateException(String.format(
+                        "SELL fill of %d %s for order %d exceeds the %d share(s) held by %s",
+                        quantity, symbol, order.getOrderId(), held, userId));
+            }
+            portfolio = existingHolding.get();
+            portfolio.removeShares(quantity);
+            
+            // If all shares sold, delete portfolio entry
+            if (portfolio.getQuantity() == 0) {
+                portfolioRepository.delete(portfolio);
+                holdings.put(userId, symbol, null);
+                log.info("Removed {} from portfolio (sold all shares)", symbol);
+            } else {
+                log.info("Updated portfolio: {} shares remaining of {}", portfolio.getQuantity(), symbol);
             }
         }
+        // Changes to existing (managed) rows are written when the transaction flushes
+        
+        // Keep the in-memory valuation in step (applied once the transaction commits)
+        if (portfolio != null) {
+            valuationEngine.onHoldingChanged(portfolio.getId(), userId, symbol,
+                    portfolio.getQuantity(), portfolio.getAveragePrice());
+        }
     }
     
     /**
      * Validate user has sufficient shares for SELL order
+     * Shares already promised to the user's open SELL orders are not available again.
      */
-    private void validateSufficientHoldings(String symbol, Integer quantityToSell) {
-        Optional<Portfolio> holding = portfolioRepository.findByUserIdAndSymbol(DEFAULT_USER_ID, symbol);
+    private void validateSufficientHoldings(String userId, String symbol, Integer quantityToSell, Holdings holdings) {
+        Optional<Portfolio> holding = holdings.find(userId, symbol);
         
         if (holding.isEmpty()) {
+            orderMetrics.rejected(OrderMetrics.RejectReason.NO_HOLDINGS);
             throw new IllegalArgumentException("Cannot sell " + symbol + ": No holdings found");
         }
         
-        if (holding.get().getQuantity() < quantityToSell) {
+        long openSells = holdings.openSells(userId, symbol);
+        long available = holding.get().getQuantity() - openSells;
+        if (available < quantityToSell) {
+            orderMetrics.rejected(OrderMetrics.RejectReason.INSUFFICIENT_HOLDINGS);
             throw new IllegalArgumentException(
-                String.format("Insufficient holdings. Available: %d, Requested: %d", 
-                    holding.get().getQuantity(), quantityToSell)
+                String.format("Insufficient holdings. Available: %d (held %d, in open SELL orders %d), Requested: %d",
+                    Math.max(available, 0), holding.get().getQuantity(), openSells, quantityToSell)
             );
         }
     }
     
     /**
-     * Get order by ID
+     * Null when absent; otherwise 1-64 letters, digits or . _ : - (never '|', the cache key separator)
      */
-    public Optional<Order> getOrderById(Long orderId) {
-        return orderRepository.findById(orderId);
+    private String checkClientOrderId(String clientOrderId) {
+        if (clientOrderId != null && !CLIENT_ORDER_ID.matcher(clientOrderId).matches()) {
+            throw new IllegalArgumentException(
+                    "clientOrderId must be 1-64 characters: letters, digits, '.', '_', ':' or '-'");
+        }
+        return clientOrderId;
+    }
+    
+    public ClientOrderIdCache.CacheStats getClientOrderIdStats() {
+        return clientOrderIds.getStats();
+    }
+    
+    /**
+     * Get one of the user's orders by ID (another user's order is reported as not found)
+     */
+    public Optional<Order> getOrderById(String userId, Long orderId) {
+        return orderRepository.findById(orderId)
+            .filter(order -> userId.equals(order.getUserId()));
+    }
+    
+    /**
+     * Get one page of the user's orders, newest first
+     * Filters are optional; cursor is the nextCursor of the previous page.
+     */
+    public CursorPage<Order> getOrders(String userId, Long cursor, Integer limit, Order.OrderStatus status,
+                                       String symbol, LocalDateTime from, LocalDateTime to) {
+        int pageSize = CursorPage.checkLimit(limit);
+        Specification<Order> filter = Specification.<Order>where(ownedBy(userId))
+                .and(before("orderId", cursor))
+                .and(equalTo("status", status))
+                .and(equalTo("symbol", symbol))
+                .and(between("createdAt", from, to));
+        
+        List<Order> rows = orderRepository.findBy(filter,
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "orderId")).limit(pageSize + 1).all());
+        return CursorPage.of(rows, pageSize, Order::getOrderId);
+    }
+    
+    /**
+     * Outcome of one order in a basket
+     */
+    public record OrderResult(int index, boolean accepted, Order order, String error) {
+        
+        static OrderResult accepted(int index, Order order) {
+            return new OrderResult(index, true, order, null);
+        }
+        
+        static OrderResult rejected(int index, String error) {
+            return new OrderResult(index, false, null, error);
+        }
     }
     
     /**
-     * Get all orders for the user
+     * Portfolio rows touched by one transaction, each looked up at most once
+     * Later orders in a basket see the holdings left by earlier ones without another query,
+     * and no query in the middle of the basket forces Hibernate to flush early.
      */
-    public List<Order> getAllOrders() {
-        return orderRepository.findByUserId(DEFAULT_USER_ID);
+    private final class Holdings {
+        
+        private final Map<String, Optional<Portfolio>> rows = new HashMap<>();
+        private final Set<String> preloadedUsers = new HashSet<>();
+        private final Set<String> deleted = new HashSet<>();
+        // Unfilled quantity of open SELL orders, queried on first use and kept up to date after that
+        private final Map<String, long[]> openSells = new HashMap<>();
+        
+        void preload(String userId) {
+            for (Portfolio portfolio : portfolioRepository.findByUserId(userId)) {
+                rows.put(key(userId, portfolio.getSymbol()), Optional.of(portfolio));
+            }
+            preloadedUsers.add(userId);
+        }
+        
+        Optional<Portfolio> find(String userId, String symbol) {
+            return rows.computeIfAbsent(key(userId, symbol), key -> preloadedUsers.contains(userId)
+                    ? Optional.empty()
+                    : portfolioRepository.findByUserIdAndSymbol(userId, symbol));
+        }
+        
+        void put(String userId, String symbol, Portfolio portfolio) {
+            String key = key(userId, symbol);
+            rows.put(key, Optional.ofNullable(portfolio));
+            if (portfolio == null) {
+                deleted.add(key);
+            }
+        }
+        
+        long openSells(String userId, String symbol) {
+            return openSells.computeIfAbsent(key(userId, symbol), key -> new long[] {
+                    orderRepository.sumOpenQuantity(userId, symbol, Order.OrderType.SELL, OPEN_STATUSES)})[0];
+        }
+        
+        // Not queried yet: the query will see the change, as it flushes pending writes first
+        void addOpenSell(String userId, String symbol, long quantity) {
+            long[] open = openSells.get(key(userId, symbol));
+            if (open != null) {
+                open[0] += quantity;
+            }
+        }
+        
+        // The row was deleted earlier in this transaction (possibly not yet flushed)
+        boolean wasDeleted(String userId, String symbol) {
+            return deleted.contains(key(userId, symbol));
+        }
+        
+        private static String key(String userId, String symbol) {
+            return userId + '|' + symbol;
+        }
     }
 }
 
 /**
  * INTERVIEW EXPLANATION:
  * 
- * Q: What is @Transactional?
+ * Q: What is the transaction for?
  * A: Ensures database consistency
  *    If ANY operation fails, ALL operations rollback
  *    
@@ -205,18 +812,31 @@ public class OrderService {
  * A: 1. User submits order → Validate (quantity, symbol, price)
  *    2. Create Order entity → Save to database (status: NEW)
  *    3. If MARKET order:
- *       a. Get current price from Instrument
+ *       a. Get current price from the QuoteCache
  *       b. Execute immediately (status: EXECUTED)
  *       c. Create Trade record
  *       d. Update Portfolio (add/remove shares)
  *    4. If LIMIT order:
- *       - Status: PLACED (wait for price condition)
+ *       a. Status: PLACED, sent to the MatchingEngine
+ *       b. Each match against a resting order = one fill
+ *          (trade + portfolio update for BOTH orders)
+ *       c. Status: EXECUTED when fully filled, PARTIALLY_FILLED otherwise
+ *       d. If the market price already crosses the limit → rest executes at LTP
+ * 
+ * Q: What happens to resting LIMIT orders when the price moves?
+ * A: InstrumentService publishes a PriceChangedEvent
+ *    OrderService pulls only the crossed orders out of the book and executes them at the new price
+ *    BUY limit ≥ price or SELL limit ≤ price → executed
  * 
  * Q: Why validate SELL orders have sufficient holdings?
  * A: You can't sell what you don't own!
  *    Check portfolio before allowing sell
  *    Prevents negative holdings
  * 
+ * Q: Two SELLs for the same user arrive at once - can both pass the check?
+ * A: No - every order of a user runs on that user's AccountLanes lane, one at a time,
+ *    and its transaction commits before the next one starts
+ * 
  * Q: What's the difference in portfolio update for BUY vs SELL?
  * A: BUY: Add shares, calculate new average price
  *    SELL: Remove shares, keep average price same
@@ -1,17 +1,16 @@
 package com.bajaj.trading.service;
 
-import com.bajaj.trading.model.Order;
+import com.bajaj.trading.engine.PnlEngine;
+import com.bajaj.trading.engine.PortfolioValuationEngine;
+import com.bajaj.trading.engine.RiskEngine;
 import com.bajaj.trading.model.Portfolio;
-import com.bajaj.trading.model.Trade;
-import com.bajaj.trading.repository.InstrumentRepository;
-import com.bajaj.trading.repository.PortfolioRepository;
-import com.bajaj.trading.repository.TradeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -19,49 +18,50 @@ import java.util.List;
 public
 class PortfolioService {
     
-    private final PortfolioRepository portfolioRepository;
-    private final InstrumentRepository instrumentRepository;
-    private static final String DEFAULT_USER_ID = "user123";
+    private final PortfolioValuationEngine valuationEngine;
+    private final PnlEngine pnlEngine;
+    private final RiskEngine riskEngine;
     
     /**
      * Get user's complete portfolio with current values
+     * Served from the valuation engine: no queries and no writes on this read path
      */
-    public List<Portfolio> getPortfolio() {
-        log.info("Fetching portfolio for user: {}", DEFAULT_USER_ID);
-        
-        List<Portfolio> holdings = portfolioRepository.findByUserId(DEFAULT_USER_ID);
-        
-        // Update current values based on latest prices
-        holdings.forEach(holding -> {
-            instrumentRepository.findBySymbol(holding.getSymbol())
-                .ifPresent(instrument -> {
-                    holding.updateCurrentValue(instrument.getLastTradedPrice());
-                });
-        });
-        
-        // Save updated values
-        portfolioRepository.saveAll(holdings);
-        
-        return holdings;
+    public List<Portfolio> getPortfolio(String userId) {
+        log.info("Fetching portfolio for user: {}", userId);
+        return valuationEngine.getHoldings(userId);
     }
     
     /**
      * Get holdings for a specific symbol
      */
-    public Portfolio getHoldingBySymbol(String symbol) {
-        return portfolioRepository.findByUserIdAndSymbol(DEFAULT_USER_ID, symbol)
+    public Portfolio getHoldingBySymbol(String userId, String symbol) {
+        return valuationEngine.getHolding(userId, symbol)
             .orElse(null);
     }
     
     /**
-     * Calculate total portfolio value
+     * Calculate total portfolio value (kept up to date incrementally, O(1))
      */
-    public BigDecimal getTotalPortfolioValue() {
-        List<Portfolio> holdings = getPortfolio();
-        
-        return holdings.stream()
-            .map(Portfolio::getCurrentValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public BigDecimal getTotalPortfolioValue(String userId) {
+        return valuationEngine.getTotalValue(userId);
+    }
+    
+    /**
+     * Realized and unrealized P&L per symbol and in total (lots kept incrementally by the P&L engine)
+     */
+    public PnlEngine.PnlSummary getPnl(String userId) {
+        return pnlEngine.getPnl(userId);
+    }
+    
+    public Optional<PnlEngine.SymbolPnl> getPnlBySymbol(String userId, String symbol) {
+        return pnlEngine.getPnl(userId, symbol);
+    }
+    
+    /**
+     * Remaining buying power, open BUY quantities and the pre-trade limits
+     */
+    public RiskEngine.AccountRisk getAccountRisk(String userId) {
+        return riskEngine.getAccountRisk(userId);
     }
 }
 
@@ -70,12 +70,12 @@ class PortfolioService {
  * 
  * Q: What does getPortfolio() do?
  * A: Returns user's current holdings with live values
- *    1. Fetch all holdings from database
- *    2. Update current values using latest market prices
- *    3. Save updated values
- *    4. Return to user
+ *    The PortfolioValuationEngine already holds them in memory:
+ *    - fills update quantity / average price
+ *    - price ticks update currentValue and the running total
+ *    So the GET just returns the latest snapshot
  * 
- * Q: Why update current values every time?
+ * Q: Why does currentValue keep changing?
  * A: Stock prices change constantly
  *    We store averagePrice (what you paid)
  *    But currentValue (market worth) needs refreshing
@@ -1,5 +1,8 @@
 package com.bajaj.trading.service;
 
+import com.bajaj.trading.engine.CandleAggregator;
+import com.bajaj.trading.engine.PnlEngine;
+import com.bajaj.trading.model.CursorPage;
 import com.bajaj.trading.model.Order;
 import com.bajaj.trading.model.Portfolio;
 import com.bajaj.trading.model.Trade;
@@ -8,11 +11,18 @@ import com.bajaj.trading.repository.PortfolioRepository;
 import com.bajaj.trading.repository.TradeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.bajaj.trading.repository.HistorySpecifications.before;
+import static com.bajaj.trading.repository.HistorySpecifications.between;
+import static com.bajaj.trading.repository.HistorySpecifications.equalTo;
+import static com.bajaj.trading.repository.HistorySpecifications.ownedBy;
+
 /**
  * ==================== TRADE SERVICE ====================
  */
@@ -22,38 +32,67 @@ import java.util.List;
 public class TradeService {
     
     private final TradeRepository tradeRepository;
-    private static final String DEFAULT_USER_ID = "user123";
+    private final TradeWriteBehind writeBehind;
+    private final CandleAggregator candles;
+    private final PnlEngine pnlEngine;
     
     /**
-     * Create a trade when an order is executed
+     * Create a trade for a (possibly partial) fill of an order, at a price in Price units
+     * resting = the order was the passive side of an order book match. A book match books a trade
+     * for each side, but only the incoming side is counted in the candles, so the match adds its
+     * quantity to the volume once. In write-behind mode the trade is written after the transaction
+     * commits and has no id yet.
      */
-    public Trade createTrade(Order order, BigDecimal executionPrice) {
+    public Trade createTrade(Order order, long priceUnits, int quantity, boolean resting) {
         log.info("Creating trade for order: {}", order.getOrderId());
         
         Trade trade = new Trade(
             order.getOrderId(),
             order.getSymbol(),
             order.getOrderType(),
-            order.getQuantity(),
-            executionPrice,
+            quantity,
+            priceUnits,
             order.getUserId()
         );
+        if (!resting) {
+            candles.onTrade(order.getSymbol(), priceUnits, quantity, System.currentTimeMillis());
+        }
         
-        return tradeRepository.save(trade);
+        if (writeBehind.isEnabled()) {
+            writeBehind.enqueueAfterCommit(trade);
+        } else {
+            trade = tradeRepository.save(trade);
+        }
+        pnlEngine.onTrade(trade);
+        return trade;
     }
     
     /**
-     * Get all trades for the user
+     * Get one page of the user's trades, newest first
+     * Filters are optional; cursor is the nextCursor of the previous page.
      */
-    public List<Trade> getAllTrades() {
-        return tradeRepository.findByUserId(DEFAULT_USER_ID);
+    public CursorPage<Trade> getTrades(String userId, Long cursor, Integer limit, String symbol,
+                                       LocalDateTime from, LocalDateTime to) {
+        int pageSize = CursorPage.checkLimit(limit);
+        Specification<Trade> filter = Specification.<Trade>where(ownedBy(userId))
+                .and(before("tradeId", cursor))
+                .and(equalTo("symbol", symbol))
+                .and(between("executedAt", from, to));
+        
+        List<Trade> rows = tradeRepository.findBy(filter,
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "tradeId")).limit(pageSize + 1).all());
+        return CursorPage.of(rows, pageSize, Trade::getTradeId);
+    }
+    
+    public TradeWriteBehind.WriterStats getWriterStats() {
+        return writeBehind.getStats();
     }
     
     /**
-     * Get trade by order ID
+     * Get the user's trades of one order (a LIMIT order can fill in several trades)
      */
-    public Trade getTradeByOrderId(Long orderId) {
-        return tradeRepository.findByOrderId(orderId).orElse(null);
+    public List<Trade> getTradesByOrderId(String userId, Long orderId) {
+        return tradeRepository.findByUserIdAndOrderId(userId, orderId);
     }
 }
 
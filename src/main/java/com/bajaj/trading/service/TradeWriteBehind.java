@@ -0,0 +1,277 @@
+package com.bajaj.trading.service;
+
+import com.bajaj.trading.model.Trade;
+import com.bajaj.trading.repository.TradeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trade Write-Behind - Persists trades off the order path
+ * 
+ * Trades created in a transaction are handed to a bounded queue once that transaction commits;
+ * one writer thread drains the queue and inserts them with saveAll in batches. The order's own
+ * transaction no longer waits for the trade insert. Trade ids are assigned when the batch is
+ * written, so a new trade shows up in the trade APIs a few milliseconds after its order.
+ * 
+ * Backpressure: when the queue is full the producer waits up to put-timeout-ms, then writes the
+ * trades itself. Shutdown drains the queue before the database goes away.
+ * 
+ * A trade is never dropped: a failed batch is retried with a growing pause, then written one
+ * trade at a time, so only a trade the database keeps refusing is left out (logged in full and
+ * counted as failed). Producers check running and offer under a read lock that stop() takes for
+ * writing, so no trade can land in the queue after the writer has been told to finish.
+ * Opt-in: trading.trades.write-behind.enabled=true.
+ */
+@Component
+@Slf4j
+public class TradeWriteBehind {
+    
+    private static final long IDLE_POLL_MS = 50;
+    private static final int FLUSH_ATTEMPTS = 3;
+    private static final long RETRY_PAUSE_MS = 100;
+    
+    private final TradeRepository tradeRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${trading.trades.write-behind.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${trading.trades.write-behind.queue-capacity:100000}")
+    private int queueCapacity;
+    
+    @Value("${trading.trades.write-behind.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${trading.trades.write-behind.put-timeout-ms:1000}")
+    private long putTimeoutMs;
+    
+    private BlockingQueue<Trade> queue;
+    private Thread writer;
+    private volatile boolean running;
+    // Read: check running + offer; write: flip running off
+    private final ReentrantReadWriteLock runningLock = new ReentrantReadWriteLock();
+    
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    
+    public TradeWriteBehind(TradeRepository tradeRepository, PlatformTransactionManager transactionManager) {
+        this.tradeRepository = tradeRepository;
+        // The writer and the overflow path commit on their own, never inside someone else's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::run, "trade-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Trade write-behind on (queue {}, batch {})", queueCapacity, batchSize);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Queue a trade for writing once the current transaction commits
+     * Nothing is written if the transaction rolls back.
+     */
+    public void enqueueAfterCommit(Trade trade) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(List.of(trade));
+            return;
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<Trade> pending = (List<Trade>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Trade> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(batch);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(TradeWriteBehind.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(trade);
+    }
+    
+    private void enqueue(List<Trade> trades) {
+        List<Trade> overflow = null;
+        runningLock.readLock().lock();
+        try {
+            for (Trade trade : trades) {
+                if (overflow == null && running && offer(trade)) {
+                    enqueued.increment();
+                } else {
+                    if (overflow == null) {
+                        overflow = new ArrayList<>();
+                    }
+                    overflow.add(trade);
+                }
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        
+        // Queue full for too long (or shutting down): write on the caller's thread instead
+        if (overflow != null) {
+            overflows.add(overflow.size());
+            writeReliably(overflow);
+            log.warn("Trade queue full or closed, wrote {} trade(s) synchronously", overflow.size());
+        }
+    }
+    
+    private boolean offer(Trade trade) {
+        try {
+            return queue.offer(trade, putTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void run() {
+        List<Trade> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Trade first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                long start = System.nanoTime();
+                writeReliably(batch);
+                long elapsed = System.nanoTime() - start;
+                flushes.increment();
+                flushNanos.add(elapsed);
+                maxFlushNanos.accumulate(elapsed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            batch.clear();
+        }
+    }
+    
+    /**
+     * Write trades whose orders have committed: retry the batch, then fall back to one at a time
+     */
+    private void writeReliably(List<Trade> trades) {
+        for (int attempt = 1; attempt <= FLUSH_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> tradeRepository.saveAll(trades));
+                written.add(trades.size());
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Writing {} trade(s) failed (attempt {} of {})", trades.size(), attempt, FLUSH_ATTEMPTS, e);
+                trades.forEach(trade -> trade.setTradeId(null));   // ids of the rolled back insert are void
+                retries.increment();
+                pause(RETRY_PAUSE_MS * attempt);
+            }
+        }
+        
+        // One bad row must not take the rest of the batch down with it
+        for (Trade trade : trades) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> tradeRepository.save(trade));
+                written.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Trade could not be written and needs manual repair: {}", trade, e);
+            }
+        }
+    }
+    
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();   // finish the write, the caller sees the flag
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        runningLock.writeLock().lock();
+        try {
+            running = false;   // in-flight offers have finished; later ones write synchronously
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        
+        // The writer timed out or died: whatever it left in the queue is written here
+        List<Trade> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            writeReliably(rest);
+            log.warn("Wrote {} queued trade(s) on shutdown", rest.size());
+        }
+        log.info("Trade writer stopped, {} trade(s) written, {} failed", written.sum(), failed.sum());
+    }
+    
+    public WriterStats getStats() {
+        long flushCount = flushes.sum();
+        return new WriterStats(
+            enabled,
+            queue == null ? 0 : queue.size(),
+            enqueued.sum(),
+            written.sum(),
+            flushCount,
+            flushCount == 0 ? 0.0 : flushNanos.sum() / 1_000_000.0 / flushCount,
+            maxFlushNanos.get() / 1_000_000.0,
+            overflows.sum(),
+            retries.sum(),
+            failed.sum()
+        );
+    }
+    
+    /**
+     * Write-behind counters (flush latency in milliseconds; failed = trades given up on after every retry)
+     */
+    public record WriterStats(boolean enabled, int queueDepth, long enqueued, long written, long flushes,
+                              double averageFlushMs, double maxFlushMs, long synchronousWrites,
+                              long retries, long failed) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.bajaj.trading.stream;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters shared by all subscribers
+ */
+final class StreamCounters {
+    
+    final LongAdder delivered = new LongAdder();
+    final LongAdder conflated = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+}
@@ -0,0 +1,14 @@
+package com.bajaj.trading.stream;
+
+/**
+ * One message for a subscriber
+ * Events with the same key replace each other while they wait in the subscriber's buffer
+ * (conflation): a slow client gets the latest state of each order / holding, not every step.
+ */
+record StreamEvent(String name, String key, Object data) {
+    
+    static final String ORDER = "order";
+    static final String HOLDING = "holding";
+    static final String PORTFOLIO = "portfolio";
+    static final String HEARTBEAT = "heartbeat";
+}
@@ -0,0 +1,119 @@
+package com.bajaj.trading.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * One open stream: a bounded, conflating buffer and the connection it drains into
+ * 
+ * Producers (fills, price ticks) only touch the buffer and never wait for the network.
+ * A single drain task at a time sends to the client; while it is blocked on a slow client,
+ * new events overwrite older ones with the same key, and when the buffer holds capacity
+ * distinct keys the oldest is dropped.
+ */
+final class StreamSubscriber {
+    
+    private final String userId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor sender;
+    private final StreamCounters counters;
+    private final Consumer<StreamSubscriber> onClose;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, StreamEvent> pending = new LinkedHashMap<>();
+    private boolean draining;
+    private volatile boolean closed;
+    
+    StreamSubscriber(String userId, SseEmitter emitter, int capacity, Executor sender,
+                     StreamCounters counters, Consumer<StreamSubscriber> onClose) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.sender = sender;
+        this.counters = counters;
+        this.onClose = onClose;
+    }
+    
+    String getUserId() {
+        return userId;
+    }
+    
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+    
+    void offer(StreamEvent event) {
+        if (closed) {
+            return;
+        }
+        boolean startDrain;
+        lock.lock();
+        try {
+            if (pending.remove(event.key()) != null) {
+                counters.conflated.increment();
+            } else if (pending.size() >= capacity) {
+                Iterator<String> oldest = pending.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                counters.dropped.increment();
+            }
+            pending.put(event.key(), event);
+            startDrain = !draining;
+            draining = true;
+        } finally {
+            lock.unlock();
+        }
+        if (startDrain) {
+            sender.execute(this::drain);
+        }
+    }
+    
+    private void drain() {
+        while (!closed) {
+            List<StreamEvent> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+            
+            for (StreamEvent event : batch) {
+                try {
+                    if (StreamEvent.HEARTBEAT.equals(event.name())) {
+                        emitter.send(SseEmitter.event().comment(StreamEvent.HEARTBEAT));
+                    } else {
+                        emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                        counters.delivered.increment();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away
+                    close();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+    
+    void close() {
+        if (!closed) {
+            closed = true;
+            onClose.accept(this);
+        }
+    }
+}
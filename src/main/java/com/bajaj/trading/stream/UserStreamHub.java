@@ -0,0 +1,158 @@
+package com.bajaj.trading.stream;
+
+import com.bajaj.trading.engine.PortfolioValuationEngine;
+import com.bajaj.trading.event.OrderUpdatedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User Stream Hub - Pushes order updates and portfolio changes to each user's open streams
+ * 
+ * Sources:
+ * - OrderUpdatedEvent (status change or fill), delivered after the order's transaction commits
+ * - PortfolioValuationEngine changes (fills and price ticks), only for users with an open stream
+ * 
+ * Every stream has its own bounded, conflating buffer (see StreamSubscriber) and is written by
+ * its own virtual thread, so a stuck client only ever holds up itself - never the order lanes
+ * or the price publisher.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStreamHub implements PortfolioValuationEngine.ValuationListener {
+    
+    private final PortfolioValuationEngine valuationEngine;
+    
+    @Value("${trading.stream.buffer-size:1000}")
+    private int bufferSize;
+    
+    @Value("${trading.stream.heartbeat-seconds:15}")
+    private int heartbeatSeconds;
+    
+    @Value("${trading.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+    
+    private final Map<String, List<StreamSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final StreamCounters counters = new StreamCounters();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService heartbeat;
+    
+    @PostConstruct
+    public void start() {
+        valuationEngine.setListener(this);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Heartbeats keep proxies from closing idle streams and reveal clients that have gone away
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Open a stream for a user
+     */
+    public SseEmitter subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        StreamSubscriber subscriber = new StreamSubscriber(userId, emitter, bufferSize, sender, counters, this::remove);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        
+        subscribers.compute(userId, (id, streams) -> {
+            List<StreamSubscriber> list = streams != null ? streams : new CopyOnWriteArrayList<>();
+            list.add(subscriber);
+            return list;
+        });
+        log.info("Stream opened for {}", userId);
+        
+        // Start with the current total so the client does not need a separate GET
+        subscriber.offer(new StreamEvent(StreamEvent.PORTFOLIO, StreamEvent.PORTFOLIO,
+                Map.of("totalValue", valuationEngine.getTotalValue(userId))));
+        return emitter;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderUpdated(OrderUpdatedEvent event) {
+        publish(event.userId(), new StreamEvent(StreamEvent.ORDER, "order:" + event.orderId(), event));
+    }
+    
+    @Override
+    public boolean isWatching(String userId) {
+        return subscribers.containsKey(userId);
+    }
+    
+    @Override
+    public void onValuationChanged(PortfolioValuationEngine.ValuationUpdate update) {
+        publish(update.userId(), new StreamEvent(StreamEvent.HOLDING, "holding:" + update.symbol(), update));
+        publish(update.userId(), new StreamEvent(StreamEvent.PORTFOLIO, StreamEvent.PORTFOLIO,
+                Map.of("totalValue", update.totalValue())));
+    }
+    
+    private void publish(String userId, StreamEvent event) {
+        List<StreamSubscriber> streams = subscribers.get(userId);
+        if (streams != null) {
+            for (StreamSubscriber subscriber : streams) {
+                subscriber.offer(event);
+            }
+        }
+    }
+    
+    private void sendHeartbeats() {
+        StreamEvent event = new StreamEvent(StreamEvent.HEARTBEAT, StreamEvent.HEARTBEAT, null);
+        for (List<StreamSubscriber> streams : subscribers.values()) {
+            for (StreamSubscriber subscriber : streams) {
+                subscriber.offer(event);
+            }
+        }
+    }
+    
+    private void remove(StreamSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.getUserId(), (userId, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+        log.info("Stream closed for {}", subscriber.getUserId());
+    }
+    
+    public StreamStats getStats() {
+        return new StreamStats(
+            subscribers.values().stream().mapToInt(List::size).sum(),
+            counters.delivered.sum(),
+            counters.conflated.sum(),
+            counters.dropped.sum()
+        );
+    }
+    
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        for (List<StreamSubscriber> streams : subscribers.values()) {
+            for (StreamSubscriber subscriber : streams) {
+                subscriber.close();
+                subscriber.getEmitter().complete();
+            }
+        }
+        sender.shutdownNow();
+    }
+    
+    /**
+     * Stream counters: open streams, events sent, events replaced by a newer one, events dropped
+     */
+    public record StreamStats(int subscribers, long delivered, long conflated, long dropped) {}
+}
@@ -0,0 +1,110 @@
+package com.bajaj.trading.engine;
+
+import com.bajaj.trading.model.Price;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Rings that start small and grow keep exactly the bars a full-size ring would keep
+ */
+class CandleAggregatorTest {
+    
+    private static final String SYMBOL = "TCS";
+    
+    @Test
+    void matchesSimpleModelWithLateTradesAndGaps() {
+        int[] capacities = {5, 20, 37, 300};
+        for (int capacity : capacities) {
+            CandleAggregator aggregator = new CandleAggregator(capacity);
+            Model model = new Model(capacity);
+            SplittableRandom random = new SplittableRandom(capacity);
+            long now = 1_700_000_000_000L;
+            for (int i = 0; i < 20_000; i++) {
+                // Mostly forward in time, sometimes a quiet gap, sometimes a late trade
+                int step = random.nextInt(10);
+                if (step == 0) {
+                    now += random.nextLong(1, 200_000);
+                } else if (step < 8) {
+                    now += random.nextLong(0, 1_500);
+                }
+                long tradedAt = step == 9 ? now - random.nextLong(0, 60_000) : now;
+                long price = 100_000 + random.nextInt(1_000);
+                int quantity = 1 + random.nextInt(10);
+                aggregator.onTrade(SYMBOL, price, quantity, tradedAt);
+                model.add(tradedAt / 1000, price, quantity);
+                
+                if (i % 2 == 0) {
+                    // Full reach (the oldest bars kept are the ones a bad resize would lose) and a random limit
+                    for (int limit : new int[] {capacity, 1 + random.nextInt(capacity)}) {
+                        assertEquals(model.latest(limit), aggregator.getCandles(SYMBOL, CandleAggregator.Interval.S1, limit),
+                                "capacity " + capacity + ", trade " + i + ", limit " + limit);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    void capacityCanBeSetPerInterval() {
+        CandleAggregator aggregator = new CandleAggregator(100, 3600, 0, 0, 30);
+        assertEquals(3600, aggregator.getCapacity(CandleAggregator.Interval.S1));
+        assertEquals(100, aggregator.getCapacity(CandleAggregator.Interval.M1));
+        assertEquals(100, aggregator.getCapacity(CandleAggregator.Interval.M5));
+        assertEquals(30, aggregator.getCapacity(CandleAggregator.Interval.D1));
+        assertThrows(IllegalArgumentException.class,
+                () -> aggregator.getCandles(SYMBOL, CandleAggregator.Interval.D1, 31));
+        assertEquals(List.of(), aggregator.getCandles(SYMBOL, CandleAggregator.Interval.S1, 3600));
+    }
+    
+    /**
+     * One interval of one symbol, kept in a map
+     */
+    private static final class Model {
+        
+        private final int capacity;
+        private final TreeMap<Long, long[]> bars = new TreeMap<>();  // bucket -> open, high, low, close, volume, trades
+        private long latest = -1;
+        
+        Model(int capacity) {
+            this.capacity = capacity;
+        }
+        
+        void add(long number, long price, int quantity) {
+            long newest = Math.max(latest, number);
+            if (number <= newest - capacity) {
+                return;
+            }
+            latest = newest;
+            long[] bar = bars.get(number);
+            if (bar == null) {
+                bars.put(number, new long[] {price, price, price, price, quantity, 1});
+            } else {
+                bar[1] = Math.max(bar[1], price);
+                bar[2] = Math.min(bar[2], price);
+                bar[3] = price;
+                bar[4] += quantity;
+                bar[5]++;
+            }
+        }
+        
+        List<CandleAggregator.Candle> latest(int limit) {
+            List<CandleAggregator.Candle> result = new ArrayList<>();
+            for (Map.Entry<Long, long[]> entry : bars.subMap(latest - limit, false, latest, true).entrySet()) {
+                long[] bar = entry.getValue();
+                result.add(new CandleAggregator.Candle(Instant.ofEpochSecond(entry.getKey()),
+                        Price.toBigDecimal(bar[0]), Price.toBigDecimal(bar[1]),
+                        Price.toBigDecimal(bar[2]), Price.toBigDecimal(bar[3]), bar[4], (int) bar[5]));
+            }
+            return result;
+        }
+    }
+}
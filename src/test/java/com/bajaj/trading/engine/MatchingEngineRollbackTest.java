@@ -0,0 +1,208 @@
+package com.bajaj.trading.engine;
+
+import com.bajaj.trading.cache.Quote;
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.metrics.OrderMetrics;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Price;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Book changes made inside a transaction are undone when it rolls back, and kept when it commits;
+ * so are the risk reservations changed with them
+ */
+class MatchingEngineRollbackTest {
+    
+    private static final String SYMBOL = "TCS";
+    
+    private MatchingEngine engine;
+    private long nextOrderId;
+    
+    @BeforeEach
+    void setUp() {
+        engine = new MatchingEngine();
+        nextOrderId = 1;
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void rolledBackMatchRestoresMakersAndRemovesTaker() {
+        Order first = resting(Order.OrderType.SELL, "100.00", 5);
+        Order second = resting(Order.OrderType.SELL, "100.00", 5);
+        
+        begin();
+        List<Fill> fills = engine.submit(order(Order.OrderType.BUY, "100.00", 12));
+        assertEquals(2, fills.size());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        OrderBook book = engine.getBook(SYMBOL);
+        assertNull(book.getBestBid());
+        assertEquals(2, book.getRestingOrderCount());
+        assertEquals(5, book.find(first.getOrderId()).getRemainingQuantity());
+        assertEquals(5, book.find(second.getOrderId()).getRemainingQuantity());
+        
+        // Time priority is kept: the first maker is matched first again
+        List<Fill> again = engine.submit(order(Order.OrderType.BUY, "100.00", 1));
+        assertEquals(first.getOrderId(), again.get(0).makerOrderId());
+    }
+    
+    @Test
+    void committedMatchIsKept() {
+        Order maker = resting(Order.OrderType.SELL, "100.00", 5);
+        
+        begin();
+        engine.submit(order(Order.OrderType.BUY, "100.00", 3));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        
+        assertEquals(2, engine.getBook(SYMBOL).find(maker.getOrderId()).getRemainingQuantity());
+    }
+    
+    @Test
+    void rolledBackPartialMatchGivesQuantityBackInPlace() {
+        Order maker = resting(Order.OrderType.SELL, "100.00", 10);
+        
+        begin();
+        engine.submit(order(Order.OrderType.BUY, "100.00", 4));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertEquals(10, engine.getBook(SYMBOL).find(maker.getOrderId()).getRemainingQuantity());
+    }
+    
+    @Test
+    void rolledBackTriggerPutsOrdersBack() {
+        Order buy = resting(Order.OrderType.BUY, "100.00", 5);
+        
+        begin();
+        assertEquals(1, engine.trigger(SYMBOL, new BigDecimal("99.00")).size());
+        assertNull(engine.getBook(SYMBOL).find(buy.getOrderId()));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertNotNull(engine.getBook(SYMBOL).find(buy.getOrderId()));
+    }
+    
+    @Test
+    void rolledBackCancelPutsOrderBack() {
+        Order buy = resting(Order.OrderType.BUY, "100.00", 5);
+        
+        begin();
+        assertEquals(5, engine.cancel(buy));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertEquals(5, engine.getBook(SYMBOL).find(buy.getOrderId()).getRemainingQuantity());
+    }
+    
+    @Test
+    void rolledBackModifyRestoresOriginalTermsAndMakers() {
+        Order maker = resting(Order.OrderType.SELL, "101.00", 3);
+        Order buy = resting(Order.OrderType.BUY, "100.00", 5);
+        
+        begin();
+        List<Fill> fills = engine.modify(buy, Price.toUnits(new BigDecimal("101.00")), 5, (resting, newResting) -> { });
+        assertEquals(1, fills.size());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        OrderBook book = engine.getBook(SYMBOL);
+        assertEquals(Price.toUnits(new BigDecimal("100.00")), book.find(buy.getOrderId()).getPrice());
+        assertEquals(5, book.find(buy.getOrderId()).getRemainingQuantity());
+        assertEquals(3, book.find(maker.getOrderId()).getRemainingQuantity());
+    }
+    
+    @Test
+    void rolledBackReductionGivesQuantityBack() {
+        Order buy = resting(Order.OrderType.BUY, "100.00", 5);
+        
+        begin();
+        engine.modify(buy, Price.toUnits(new BigDecimal("100.00")), 2, (resting, newResting) -> { });
+        assertEquals(2, engine.getBook(SYMBOL).find(buy.getOrderId()).getRemainingQuantity());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertEquals(5, engine.getBook(SYMBOL).find(buy.getOrderId()).getRemainingQuantity());
+    }
+    
+    @Test
+    void rolledBackModifyRestoresBuyingPower() {
+        RiskEngine risk = riskEngine(new BigDecimal("100.00"));
+        Order buy = order(Order.OrderType.BUY, "100.00", 5);
+        risk.track(buy, risk.reserve(buy.getUserId(), buy));
+        engine.submit(buy);
+        RiskEngine.AccountRisk before = risk.getAccountRisk(buy.getUserId());
+        
+        begin();
+        BigDecimal newPrice = new BigDecimal("105.00");
+        engine.modify(buy, Price.toUnits(newPrice), 8,
+                (resting, newResting) -> risk.amend(buy, newPrice, resting, newResting));
+        assertEquals(new BigDecimal("999160.00"), risk.getAccountRisk(buy.getUserId()).buyingPower());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        RiskEngine.AccountRisk after = risk.getAccountRisk(buy.getUserId());
+        assertEquals(before.buyingPower(), after.buyingPower());
+        assertEquals(before.openBuyQuantity(), after.openBuyQuantity());
+        
+        // The old reservation is back: a fill at the old price settles against it
+        risk.onFill(buy, 5, Price.toUnits(new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("999500.00"), risk.getAccountRisk(buy.getUserId()).buyingPower());
+        assertEquals(Map.of(), risk.getAccountRisk(buy.getUserId()).openBuyQuantity());
+    }
+    
+    // Risk checks on, 1,000,000.00 of buying power per user, every symbol quoted at the market price
+    private static RiskEngine riskEngine(BigDecimal market) {
+        QuoteCache quoteCache = mock(QuoteCache.class);
+        when(quoteCache.get(SYMBOL)).thenReturn(Optional.of(new Quote(1L, SYMBOL, "NSE", "EQ", market, 1)));
+        PortfolioValuationEngine valuationEngine = mock(PortfolioValuationEngine.class);
+        when(valuationEngine.getHolding(anyString(), anyString())).thenReturn(Optional.empty());
+        return new RiskEngine(quoteCache, valuationEngine, mock(OrderMetrics.class), true,
+                new BigDecimal("1000000.00"), new BigDecimal("500000.00"), 100_000, new BigDecimal("20"));
+    }
+    
+    // A LIMIT order resting in the book, outside any transaction
+    private Order resting(Order.OrderType side, String price, int quantity) {
+        Order order = order(side, price, quantity);
+        engine.submit(order);
+        return order;
+    }
+    
+    private Order order(Order.OrderType side, String price, int quantity) {
+        Order order = new Order();
+        order.setOrderId(nextOrderId++);
+        order.setUserId("user-" + order.getOrderId());
+        order.setSymbol(SYMBOL);
+        order.setOrderType(side);
+        order.setOrderStyle(Order.OrderStyle.LIMIT);
+        order.setPrice(new BigDecimal(price));
+        order.setQuantity(quantity);
+        return order;
+    }
+    
+    private static void begin() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
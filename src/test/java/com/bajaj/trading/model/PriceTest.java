@@ -0,0 +1,83 @@
+package com.bajaj.trading.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The fixed-point arithmetic gives exactly what the BigDecimal code it replaced on the fill path gave
+ */
+class PriceTest {
+    
+    private static final int SAMPLES = 1_000_000;
+    private static final long MAX_PRICE_UNITS = 10_000_000;   // ₹100,000.00
+    private static final int MAX_QUANTITY = 100_000;
+    
+    @Test
+    void weightedAverageMatchesBigDecimalFormula() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            long averageUnits = 1 + random.nextLong(MAX_PRICE_UNITS);
+            int quantity = random.nextInt(MAX_QUANTITY + 1);
+            long addUnits = 1 + random.nextLong(MAX_PRICE_UNITS);
+            int addQuantity = 1 + random.nextInt(MAX_QUANTITY);
+            
+            // The formula Portfolio.addShares used before
+            BigDecimal averagePrice = Price.toBigDecimal(averageUnits);
+            BigDecimal addPrice = Price.toBigDecimal(addUnits);
+            BigDecimal expected = averagePrice.multiply(BigDecimal.valueOf(quantity))
+                    .add(addPrice.multiply(BigDecimal.valueOf(addQuantity)))
+                    .divide(BigDecimal.valueOf(quantity + addQuantity), Price.SCALE, RoundingMode.HALF_UP);
+            
+            long actual = Price.weightedAverage(averageUnits, quantity, addUnits, addQuantity);
+            assertEquals(expected, Price.toBigDecimal(actual), () -> String.format(
+                    "%s x %d + %s x %d", averagePrice, quantity, addPrice, addQuantity));
+        }
+    }
+    
+    @Test
+    void multiplyMatchesBigDecimal() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < SAMPLES; i++) {
+            long priceUnits = 1 + random.nextLong(MAX_PRICE_UNITS);
+            int quantity = 1 + random.nextInt(MAX_QUANTITY);
+            BigDecimal expected = Price.toBigDecimal(priceUnits).multiply(BigDecimal.valueOf(quantity));
+            assertEquals(expected, Price.toBigDecimal(Price.multiply(priceUnits, quantity)));
+        }
+    }
+    
+    @Test
+    void divideHalfUpRoundsTiesAwayFromZero() {
+        assertEquals(3, Price.divideHalfUp(5, 2));
+        assertEquals(-3, Price.divideHalfUp(-5, 2));
+        assertEquals(2, Price.divideHalfUp(7, 4));
+        assertEquals(-2, Price.divideHalfUp(7, -4));
+        assertEquals(1, Price.divideHalfUp(4, 3));
+    }
+    
+    @Test
+    void conversions() {
+        assertEquals(245050, Price.toUnits(new BigDecimal("2450.50")));
+        assertEquals(245051, Price.toUnits(new BigDecimal("2450.505")));
+        assertEquals(new BigDecimal("2450.50"), Price.toBigDecimal(245050));
+        assertThrows(ArithmeticException.class, () -> Price.toUnitsExact(new BigDecimal("2450.505")));
+        assertThrows(ArithmeticException.class, () -> Price.toUnits(new BigDecimal("1e30")));
+        assertTrue(Price.isRepresentable(new BigDecimal("2450.500")));
+        assertFalse(Price.isRepresentable(new BigDecimal("2450.505")));
+        assertThrows(ArithmeticException.class, () -> Price.multiply(Long.MAX_VALUE / 2, 3));
+    }
+    
+    @Test
+    void tradeAmountsAreRoundedAlike() {
+        Trade trade = new Trade(1L, "TCS", Order.OrderType.BUY, 3, Price.toUnits(new BigDecimal("3520.755")), "u");
+        assertEquals(new BigDecimal("3520.76"), trade.getExecutedPrice());
+        assertEquals(new BigDecimal("10562.28"), trade.getTotalValue());
+    }
+}
@@ -0,0 +1,172 @@
+package com.bajaj.trading.service;
+
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.engine.AccountLanes;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.model.Portfolio;
+import com.bajaj.trading.model.Trade;
+import com.bajaj.trading.repository.OrderRepository;
+import com.bajaj.trading.repository.PortfolioRepository;
+import com.bajaj.trading.repository.TradeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads place mixed MARKET and LIMIT BUYs and SELLs for one account at once; afterwards
+ * every holding equals the account's net traded quantity, and no holding ever went negative
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:account-concurrency",
+                "logging.level.com.bajaj.trading=WARN"
+        })
+class AccountConcurrencyTest {
+    
+    private static final String USER_ID = "concurrency-test";
+    private static final String[] SYMBOLS = {"RELIANCE", "TCS", "INFY"};
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 150;
+    private static final int MAX_QUANTITY = 5;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private AccountLanes accountLanes;
+    
+    @Autowired
+    private QuoteCache quoteCache;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+    
+    @Autowired
+    private TradeRepository tradeRepository;
+    
+    @Test
+    void holdingsEqualNetTradesUnderConcurrentMixedOrders() throws Exception {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (String symbol : SYMBOLS) {
+            prices.put(symbol, quoteCache.get(symbol).orElseThrow().lastTradedPrice());
+        }
+        
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger negativeSeen = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        try {
+                            orderService.placeOrder(USER_ID, randomOrder(prices));
+                            placed.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            // SELL without enough free shares - expected, and exactly what must stay consistent
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            
+            // Sample committed holdings while the orders run
+            Future<?> watcher = executor.submit(() -> {
+                start.await();
+                while (!workers.stream().allMatch(Future::isDone)) {
+                    for (Portfolio portfolio : portfolioRepository.findByUserId(USER_ID)) {
+                        if (portfolio.getQuantity() < 0) {
+                            negativeSeen.incrementAndGet();
+                        }
+                    }
+                    Thread.sleep(5);
+                }
+                return null;
+            });
+            
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            watcher.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(THREADS * ORDERS_PER_THREAD, placed.get() + rejected.get());
+        assertEquals(0, negativeSeen.get(), "a holding was negative while orders were running");
+        
+        // Reading on the user's lane waits for everything queued before it
+        Map<String, Integer> net = accountLanes.execute(USER_ID, this::netTradedQuantity);
+        Map<String, Integer> held = new HashMap<>();
+        for (Portfolio portfolio : portfolioRepository.findByUserId(USER_ID)) {
+            held.put(portfolio.getSymbol(), portfolio.getQuantity());
+        }
+        assertTrue(tradeRepository.findByUserId(USER_ID).size() > 0, "no order executed");
+        
+        for (String symbol : SYMBOLS) {
+            int expected = net.getOrDefault(symbol, 0);
+            int actual = held.getOrDefault(symbol, 0);
+            assertTrue(expected >= 0, symbol + ": trades sold more than they bought (" + expected + ")");
+            assertEquals(expected, actual, symbol + ": holding differs from the net traded quantity");
+            
+            // Open SELLs never promise more shares than are held
+            long openSells = orderRepository.sumOpenQuantity(USER_ID, symbol, Order.OrderType.SELL,
+                    List.of(Order.OrderStatus.PLACED, Order.OrderStatus.PARTIALLY_FILLED));
+            assertTrue(openSells <= actual, symbol + ": open SELL quantity " + openSells + " exceeds holding " + actual);
+        }
+    }
+    
+    /**
+     * A BUY or SELL, MARKET or LIMIT; limits are one rupee below, at or above the last price, so some
+     * rest, some match the account's own resting orders and some execute against the market at once
+     */
+    private static Order randomOrder(Map<String, BigDecimal> prices) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String symbol = SYMBOLS[random.nextInt(SYMBOLS.length)];
+        Order order = new Order();
+        order.setSymbol(symbol);
+        order.setOrderType(random.nextBoolean() ? Order.OrderType.BUY : Order.OrderType.SELL);
+        order.setQuantity(1 + random.nextInt(MAX_QUANTITY));
+        if (random.nextBoolean()) {
+            order.setOrderStyle(Order.OrderStyle.MARKET);
+        } else {
+            order.setOrderStyle(Order.OrderStyle.LIMIT);
+            order.setPrice(prices.get(symbol).add(BigDecimal.valueOf(random.nextInt(3) - 1)));
+        }
+        return order;
+    }
+    
+    private Map<String, Integer> netTradedQuantity() {
+        Map<String, Integer> net = new HashMap<>();
+        for (Trade trade : tradeRepository.findByUserId(USER_ID)) {
+            int signed = trade.getTradeType() == Order.OrderType.BUY ? trade.getQuantity() : -trade.getQuantity();
+            net.merge(trade.getSymbol(), signed, Integer::sum);
+        }
+        return net;
+    }
+}
@@ -0,0 +1,110 @@
+package com.bajaj.trading.service;
+
+import com.bajaj.trading.cache.QuoteCache;
+import com.bajaj.trading.engine.AccountLanes;
+import com.bajaj.trading.model.Order;
+import com.bajaj.trading.repository.OrderRepository;
+import com.bajaj.trading.repository.PendingFillRepository;
+import com.bajaj.trading.repository.TradeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * The resting half of a match that fails on the maker's lane is kept as a pending fill and applied
+ * by a later attempt, so both accounts end up with their trade
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:maker-fill-retry",
+                "trading.lanes.count=2",
+                "logging.level.com.bajaj.trading=WARN"
+        })
+class MakerFillRetryTest {
+    
+    private static final String SYMBOL = "INFY";
+    private static final String MAKER = "maker-retry";
+    
+    @SpyBean
+    private TradeService tradeService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private AccountLanes accountLanes;
+    
+    @Autowired
+    private QuoteCache quoteCache;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TradeRepository tradeRepository;
+    
+    @Autowired
+    private PendingFillRepository pendingFillRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void failedMakerFillIsRetriedUntilApplied() throws Exception {
+        String taker = takerOnAnotherLane();
+        BigDecimal limit = quoteCache.get(SYMBOL).orElseThrow().lastTradedPrice().subtract(BigDecimal.ONE);
+        
+        // Below the market, so it rests until the taker's SELL reaches it
+        Order makerOrder = orderService.placeOrder(MAKER, order(Order.OrderType.BUY, Order.OrderStyle.LIMIT, limit));
+        orderService.placeOrder(taker, order(Order.OrderType.BUY, Order.OrderStyle.MARKET, null));
+        
+        // The maker's first attempt fails after the taker has committed
+        doThrow(new IllegalStateException("maker fill failed")).doCallRealMethod()
+                .when(tradeService).createTrade(any(), anyLong(), anyInt(), eq(true));
+        Order takerOrder = orderService.placeOrder(taker, order(Order.OrderType.SELL, Order.OrderStyle.LIMIT, limit));
+        assertEquals(Order.OrderStatus.EXECUTED, takerOrder.getStatus());
+        
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pendingFillRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        // Anything the retry queued on the maker's lane has run once this returns
+        accountLanes.execute(MAKER, () -> null);
+        
+        assertEquals(0, pendingFillRepository.count(), "pending fill was never applied");
+        assertEquals(Order.OrderStatus.EXECUTED, orderRepository.findById(makerOrder.getOrderId()).orElseThrow().getStatus());
+        assertEquals(1, tradeRepository.findByOrderId(makerOrder.getOrderId()).size());
+        assertEquals(1.0, meterRegistry.get("trading.fills.maker.failed").tag("outcome", "retried").counter().count());
+    }
+    
+    private String takerOnAnotherLane() {
+        for (int i = 0; ; i++) {
+            String taker = "taker-retry-" + i;
+            if (Math.floorMod(taker.hashCode(), 2) != Math.floorMod(MAKER.hashCode(), 2)) {
+                return taker;
+            }
+        }
+    }
+    
+    private static Order order(Order.OrderType type, Order.OrderStyle style, BigDecimal price) {
+        Order order = new Order();
+        order.setSymbol(SYMBOL);
+        order.setOrderType(type);
+        order.setOrderStyle(style);
+        order.setQuantity(1);
+        order.setPrice(price);
+        return order;
+    }
+}